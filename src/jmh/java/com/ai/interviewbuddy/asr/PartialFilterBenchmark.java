@@ -0,0 +1,56 @@
+package com.ai.interviewbuddy.asr;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The word-split partial filter of the console streamer, fed one utterance's
+ * worth of growing and occasionally revised hypotheses per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartialFilterBenchmark {
+
+    private final PartialFilter filter = new PartialFilter();
+    private List<String> hypotheses;
+
+    @Setup
+    public void setUp() {
+        String[] words = "so tell me about a time when you had to deal with a difficult stakeholder and how you handled it"
+                .split(" ");
+        hypotheses = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        for (String word : words) {
+            text.append(text.isEmpty() ? "" : " ").append(word);
+            hypotheses.add(text.toString());
+            // Recognizers repeat and revise; those must be filtered out.
+            hypotheses.add(text.toString());
+            hypotheses.add(text + "s");
+        }
+    }
+
+    @Benchmark
+    public void filterUtterance(Blackhole blackhole) {
+        for (String hypothesis : hypotheses) {
+            blackhole.consume(filter.accept(hypothesis));
+        }
+        filter.reset();
+    }
+}
@@ -0,0 +1,75 @@
+package com.ai.interviewbuddy.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Help prompt construction: the single formatted string MainView used to
+ * build, against PromptBuilder with a cached setup prefix and a token-budgeted
+ * window over a long transcript.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptBenchmark {
+
+    private static final String CHANNEL = "bench";
+    private static final String LAST = "How did you measure whether the migration was a success?";
+
+    @Param({ "20", "500" })
+    int utterances;
+
+    private final InterviewSetup setup = new InterviewSetup("Behavioral", "Backend Engineer", "Confident", "STAR",
+            "Professional", "Bullet Points");
+    private PromptBuilder promptBuilder;
+
+    @Setup
+    public void setUp() {
+        TranscriptStore store = new TranscriptStore(event -> {
+        }, 1000, 120);
+        for (int i = 0; i < utterances - 1; i++) {
+            store.append(CHANNEL, "Utterance " + i + ": we split the monolith into services and moved billing first.");
+        }
+        store.append(CHANNEL, LAST);
+        promptBuilder = new PromptBuilder(store, 1500, 40);
+    }
+
+    @Benchmark
+    public String formattedPrompt() {
+        return """
+                    You're helping someone in a %s interview for a %s role.
+                    Response Style: %s
+                    Preferred Framework: %s
+                    Tone: %s
+                    Format: Please answer in the form of a %s.
+
+                    User just said:
+                    %s
+                """.formatted(setup.interviewType(), setup.role(), setup.responseStyle(), setup.framework(),
+                setup.tone(), setup.format(), LAST);
+    }
+
+    @Benchmark
+    public PromptBuilder.InterviewPrompt windowedPrompt() {
+        return promptBuilder.build(setup, CHANNEL);
+    }
+
+    @Benchmark
+    public int estimateTokens() {
+        return TokenEstimator.estimate(LAST);
+    }
+}
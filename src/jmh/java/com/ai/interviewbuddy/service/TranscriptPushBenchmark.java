@@ -0,0 +1,64 @@
+package com.ai.interviewbuddy.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What PushService does per UI and flush: formatting queued final lines into
+ * one update, and turning successive hypotheses into suffix edits.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TranscriptPushBenchmark {
+
+    private final PushService.Outbox outbox = new PushService.Outbox();
+    private List<String> hypotheses;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        hypotheses = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        for (String word : "how would you design a rate limiter for a public api".split(" ")) {
+            text.append(text.isEmpty() ? "" : " ").append(word);
+            hypotheses.add(text.toString());
+        }
+    }
+
+    /** Three finals arriving within one flush interval. */
+    @Benchmark
+    public PushService.Update batchedFinals() {
+        outbox.add("Tell me about yourself.");
+        outbox.add("Start with your current role.");
+        outbox.add("And what brought you to apply here?");
+        return outbox.drain(++now, 0);
+    }
+
+    /** One utterance of hypotheses, each flushed as a diff, then cleared by its final. */
+    @Benchmark
+    public void partialDiffs(Blackhole blackhole) {
+        for (String hypothesis : hypotheses) {
+            outbox.partial(hypothesis);
+            blackhole.consume(outbox.drain(++now, 0));
+        }
+        outbox.add(hypotheses.getLast());
+        blackhole.consume(outbox.drain(++now, 0));
+    }
+}
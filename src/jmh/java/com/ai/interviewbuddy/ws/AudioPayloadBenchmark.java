@@ -0,0 +1,87 @@
+package com.ai.interviewbuddy.ws;
+
+import com.google.cloud.speech.v1.StreamingRecognizeRequest;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebSocket payload to recognize request: the original copy-twice path, the
+ * zero-copy wrap, and the full PCM ingest (downmix, resample) into the send
+ * queue. Payload sizes are about 250 ms of WebM/Opus as sent by
+ * mic-stream.js and 250 ms of 44.1 kHz mono PCM; the payload is PCM either
+ * way.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AudioPayloadBenchmark {
+
+    @Param({ "4096", "22050" })
+    int payloadBytes;
+
+    private ByteBuffer payload;
+    private Pcm16Ingest pcmIngest;
+    private AudioSendQueue queue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        payload = ByteBuffer.allocate(payloadBytes & ~1);
+        for (int i = 0; payload.remaining() >= 2; i++) {
+            payload.putShort((short) (Math.sin(i * 2 * Math.PI * 440 / 44100) * 8000));
+        }
+        payload.flip();
+        pcmIngest = new Pcm16Ingest(44100, 1, 16000);
+        queue = new AudioSendQueue(32, AudioSendQueue.OverflowPolicy.DROP_OLDEST, 0);
+    }
+
+    /** The original handler: toByteArray into a fresh array, then ByteString.copyFrom. */
+    @Benchmark
+    public StreamingRecognizeRequest copyToRequest() {
+        ByteBuffer in = payload.duplicate();
+        byte[] bytes = new byte[in.remaining()];
+        in.get(bytes);
+        return StreamingRecognizeRequest.newBuilder()
+                .setAudioContent(ByteString.copyFrom(bytes))
+                .build();
+    }
+
+    @Benchmark
+    public StreamingRecognizeRequest wrapToRequest() {
+        return StreamingRecognizeRequest.newBuilder()
+                .setAudioContent(UnsafeByteOperations.unsafeWrap(payload.duplicate()))
+                .build();
+    }
+
+    /** Ingest and enqueue as AsrSession does, then drain the head as the sender would. */
+    @Benchmark
+    public void pcmIngestThroughQueue(Blackhole blackhole) throws InterruptedException {
+        pcmIngest.accept(payload.duplicate(), (audio, millis) -> {
+            try {
+                queue.offer(audio, millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        blackhole.consume(queue.awaitHead());
+        queue.release();
+    }
+}
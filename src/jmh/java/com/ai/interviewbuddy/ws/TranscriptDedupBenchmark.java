@@ -0,0 +1,41 @@
+package com.ai.interviewbuddy.ws;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Final results through the rollover deduplicator, on an ordinary result and at a stream seam. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TranscriptDedupBenchmark {
+
+    private static final String FIRST = "I led the migration of our billing service to the new platform last year";
+    private static final String SEAM = "platform last year and we cut the p99 latency by half";
+
+    private final TranscriptDeduplicator deduplicator = new TranscriptDeduplicator();
+    private int generation;
+
+    @Benchmark
+    public String ordinaryFinal() {
+        return deduplicator.accept(generation, FIRST);
+    }
+
+    @Benchmark
+    public String seamFinal() {
+        deduplicator.accept(generation, FIRST);
+        deduplicator.expectOverlap(++generation);
+        return deduplicator.accept(generation, SEAM);
+    }
+}
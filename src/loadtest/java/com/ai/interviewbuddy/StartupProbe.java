@@ -0,0 +1,143 @@
+package com.ai.interviewbuddy;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures how soon a freshly started instance serves: launches the
+ * application as a child process, polls {@code /actuator/health} until the
+ * server answers, then times the first request to the UI and a second, warm one.
+ * Compare the JVM options and Spring profiles an instance is started with:
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.main=com.ai.interviewbuddy.StartupProbe \
+ *     -Dloadtest.args="--runs=5 -- java -jar target/interviewbuddy-1.0-SNAPSHOT.jar"
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.main=com.ai.interviewbuddy.StartupProbe \
+ *     -Dloadtest.args="--runs=5 -- java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true \
+ *     -jar app.jar --spring.profiles.active=fast-startup"
+ * </pre>
+ *
+ * Everything after {@code --} is the command; {@code --server.port} is
+ * appended to it. Options: {@code --runs} (5), {@code --port} (18080),
+ * {@code --path} (/, the request timed after startup), {@code --timeout-seconds}
+ * (120) and {@code --log} (a file for the application's output, discarded
+ * otherwise).
+ */
+public final class StartupProbe {
+
+    private final List<String> command;
+    private final int runs;
+    private final int port;
+    private final String path;
+    private final long timeoutNanos;
+    private final Path logFile;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    private StartupProbe(List<String> command, Map<String, String> options) {
+        this.command = command;
+        this.runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        this.port = Integer.parseInt(options.getOrDefault("port", "18080"));
+        this.path = options.getOrDefault("path", "/");
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("timeout-seconds", "120")));
+        this.logFile = options.containsKey("log") ? Path.of(options.get("log")) : null;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int separator = Arrays.asList(args).indexOf("--");
+        if (separator < 0 || separator == args.length - 1) {
+            System.err.println("Usage: StartupProbe [--runs=5] [--port=18080] [--path=/] -- <command to start the application>");
+            System.exit(2);
+        }
+        Map<String, String> options = new HashMap<>();
+        for (String arg : Arrays.copyOf(args, separator)) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        List<String> command = List.of(Arrays.copyOfRange(args, separator + 1, args.length));
+        new StartupProbe(command, options).run();
+    }
+
+    private void run() throws Exception {
+        List<String> full = new ArrayList<>(command);
+        full.add("--server.port=" + port);
+        System.out.println("Startup probe: " + String.join(" ", full));
+        long[] ready = new long[runs];
+        long[] first = new long[runs];
+        long[] warm = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            ProcessBuilder builder = new ProcessBuilder(full).redirectErrorStream(true);
+            builder.redirectOutput(logFile == null ? ProcessBuilder.Redirect.DISCARD
+                    : ProcessBuilder.Redirect.appendTo(logFile.toFile()));
+            long start = System.nanoTime();
+            Process process = builder.start();
+            try {
+                ready[i] = awaitHealthy(process, start);
+                first[i] = timeRequest(path);
+                warm[i] = timeRequest(path);
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+            }
+            System.out.printf("run %d: serving after %d ms, first %s %d ms, warm %d ms%n", i + 1, ready[i], path,
+                    first[i], warm[i]);
+        }
+        System.out.printf("median: serving after %d ms, first %s %d ms, warm %d ms%n", median(ready), path,
+                median(first), median(warm));
+    }
+
+    /** Milliseconds from launch until the health endpoint answers. */
+    private long awaitHealthy(Process process, long start) throws IOException, InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(uri("/actuator/health")).timeout(Duration.ofSeconds(5)).build();
+        while (System.nanoTime() - start < timeoutNanos) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + " before serving");
+            }
+            try {
+                // Any answer, even DOWN, means the server is accepting requests.
+                client.send(health, HttpResponse.BodyHandlers.discarding());
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            } catch (ConnectException e) {
+                // Not listening yet.
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+        }
+        throw new IllegalStateException("Application did not become healthy in time");
+    }
+
+    private long timeRequest(String requestPath) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri(requestPath)).build(),
+                HttpResponse.BodyHandlers.discarding());
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (response.statusCode() >= 400) {
+            System.out.printf("%s answered %d%n", requestPath, response.statusCode());
+        }
+        return millis;
+    }
+
+    private URI uri(String requestPath) {
+        return URI.create("http://localhost:" + port + requestPath);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
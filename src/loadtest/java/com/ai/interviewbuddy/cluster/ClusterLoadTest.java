@@ -0,0 +1,188 @@
+package com.ai.interviewbuddy.cluster;
+
+import com.ai.interviewbuddy.Application;
+import com.ai.interviewbuddy.service.TranscriptStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Two-node cluster check: starts a "ui" node, which also runs an embedded
+ * Artemis broker, and an "audio" node connected to it, both in this JVM with
+ * {@code interviewbuddy.cluster.mode=jms} and the replay recognizer. The ui
+ * node claims every channel, as its Vaadin UIs would, and the audio is
+ * streamed into the audio node only, so every result has to cross the broker.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.main=com.ai.interviewbuddy.cluster.ClusterLoadTest \
+ *     -Dloadtest.args="--sessions=50 --duration-seconds=60"
+ * </pre>
+ *
+ * Options: {@code --sessions} (20), {@code --duration-seconds} (30) and
+ * {@code --chunk-ms} (250). It prints how many final lines reached each
+ * node's transcript store (all of them should be on the ui node), the results
+ * sent between nodes and the latency the hop added.
+ */
+public final class ClusterLoadTest {
+
+    private static final int PCM_RATE = 16000;
+
+    private final int sessions;
+    private final long durationMillis;
+    private final int chunkMillis;
+
+    private ClusterLoadTest(Map<String, String> options) {
+        this.sessions = Integer.parseInt(options.getOrDefault("sessions", "20"));
+        this.durationMillis = Long.parseLong(options.getOrDefault("duration-seconds", "30")) * 1000;
+        this.chunkMillis = Integer.parseInt(options.getOrDefault("chunk-ms", "250"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        new ClusterLoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        // Without a registry the global one discards everything the application records.
+        Metrics.globalRegistry.add(new SimpleMeterRegistry());
+        // A devtools restart would load the application in a second class loader the harness cannot see into.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext ui = start("ui",
+                "--spring.artemis.mode=embedded",
+                "--spring.artemis.embedded.server-id=0");
+        ConfigurableApplicationContext audio = null;
+        try {
+            audio = start("audio",
+                    "--spring.artemis.mode=native",
+                    "--spring.artemis.broker-url=vm://0",
+                    // The test tone is not speech; let every chunk through to the recognizer.
+                    "--interviewbuddy.audio.vad.enabled=false");
+            List<String> channels = new ArrayList<>();
+            SessionRegistry uiRegistry = ui.getBean(SessionRegistry.class);
+            for (int i = 0; i < sessions; i++) {
+                channels.add("cluster-" + i);
+                uiRegistry.claim(channels.get(i));
+            }
+            awaitClaims(audio.getBean(SessionRegistry.class), channels);
+
+            int port = Integer.parseInt(audio.getEnvironment().getProperty("local.server.port"));
+            HttpClient client = HttpClient.newBuilder().executor(Runnable::run).build();
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+            System.out.printf("Cluster load test: %d sessions for %d s, audio on node 'audio', UIs on node 'ui'%n",
+                    sessions, durationMillis / 1000);
+            List<Thread> clients = new ArrayList<>();
+            for (String channel : channels) {
+                URI uri = URI.create("ws://localhost:" + port + "/ws/audio?channel=" + channel + "&format=pcm16&rate="
+                        + PCM_RATE);
+                clients.add(Thread.ofVirtual().name("cluster-" + channel).start(() -> stream(client, uri, end)));
+            }
+            for (Thread thread : clients) {
+                thread.join();
+            }
+            // Let in-flight results drain before counting.
+            Thread.sleep(1000);
+            report(ui.getBean(TranscriptStore.class), audio.getBean(TranscriptStore.class), channels);
+        } finally {
+            if (audio != null) {
+                audio.close();
+            }
+            ui.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String node, String... extra) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--vaadin.launch-browser=false",
+                "--interviewbuddy.asr.engine=replay",
+                "--interviewbuddy.cluster.mode=jms",
+                "--interviewbuddy.cluster.node-id=" + node,
+                "--interviewbuddy.recording.enabled=false",
+                "--spring.datasource.url=jdbc:h2:mem:cluster-" + node));
+        args.addAll(List.of(extra));
+        return new SpringApplication(Application.class).run(args.toArray(String[]::new));
+    }
+
+    private static void awaitClaims(SessionRegistry registry, List<String> channels) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!channels.stream().allMatch(channel -> "ui".equals(registry.owner(channel)))) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("The audio node did not learn the ui node's claims");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    /** Streams a 440 Hz tone at real-time pace until {@code end}. */
+    private void stream(HttpClient client, URI uri, long end) {
+        int samples = PCM_RATE * chunkMillis / 1000;
+        ByteBuffer chunk = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < samples; i++) {
+            chunk.putShort((short) (3000 * Math.sin(2 * Math.PI * 440 * i / PCM_RATE)));
+        }
+        WebSocket socket = client.newWebSocketBuilder().connectTimeout(Duration.ofSeconds(10))
+                .buildAsync(uri, new WebSocket.Listener() {
+                }).join();
+        long next = System.nanoTime();
+        while (next < end) {
+            socket.sendBinary(chunk.clear(), true).join();
+            next += TimeUnit.MILLISECONDS.toNanos(chunkMillis);
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+        socket.sendClose(WebSocket.NORMAL_CLOSURE, "done").exceptionally(e -> null).join();
+    }
+
+    private static void report(TranscriptStore ui, TranscriptStore audio, List<String> channels) {
+        long onUi = 0;
+        long onAudio = 0;
+        for (String channel : channels) {
+            onUi += ui.window(channel, Integer.MAX_VALUE, Integer.MAX_VALUE).size();
+            onAudio += audio.window(channel, Integer.MAX_VALUE, Integer.MAX_VALUE).size();
+        }
+        System.out.printf("final lines stored: %d on the ui node, %d on the audio node%n", onUi, onAudio);
+        for (String route : List.of("local", "remote", "failed")) {
+            Counter counter = Metrics.globalRegistry.find("interviewbuddy.cluster.transcripts").tag("route", route)
+                    .counter();
+            System.out.printf("results routed %s: %d%n", route, counter == null ? 0 : (long) counter.count());
+        }
+        printLatency("added by the broker hop", "interviewbuddy.cluster.transcript.latency");
+        printLatency("audio to final result", "interviewbuddy.asr.transcript.latency");
+    }
+
+    private static void printLatency(String label, String name) {
+        Timer timer = Metrics.globalRegistry.find(name).timer();
+        if (timer == null) {
+            return;
+        }
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        StringBuilder line = new StringBuilder(String.format("%s: %d results", label, snapshot.count()));
+        for (ValueAtPercentile p : snapshot.percentileValues()) {
+            line.append(String.format(" p%.0f=%.1fms", p.percentile() * 100, p.value(TimeUnit.MILLISECONDS)));
+        }
+        line.append(String.format(" max=%.1fms", snapshot.max(TimeUnit.MILLISECONDS)));
+        System.out.println(line);
+    }
+}
@@ -0,0 +1,304 @@
+package com.ai.interviewbuddy.ws;
+
+import com.ai.interviewbuddy.Application;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test: starts the application in this JVM with the replay
+ * recognizer, opens many WebSocket connections to {@code /ws/audio} over
+ * loopback and streams audio into each at real-time pace in 250 ms chunks,
+ * as mic-stream.js does. Needs no network and no cloud credentials.
+ *
+ * Every report interval it prints connected sessions, how late the clients
+ * are sending, dropped chunks, transcript latency percentiles, heap and
+ * thread counts. The clients run in the same JVM, so heap and threads
+ * include the harness.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--sessions=300 --duration-seconds=120"
+ * </pre>
+ *
+ * Options: {@code --sessions} (50), {@code --duration-seconds} (60),
+ * {@code --ramp-seconds} (10), {@code --chunk-ms} (250),
+ * {@code --report-seconds} (10), {@code --audio} (a .webm recording or raw
+ * little-endian 16-bit mono PCM; synthetic speech-like PCM when omitted),
+ * {@code --pcm-rate} (16000) and {@code --max-streams} (the number of
+ * sessions; set it lower to watch admission control turn sessions away). WebM
+ * recordings are not looped: a session whose recording ends reconnects, like
+ * a user restarting the microphone.
+ */
+public final class AudioLoadTest {
+
+    private static final long WEBM_FRAME_MILLIS = 20;
+
+    private final int sessions;
+    private final long durationMillis;
+    private final long rampMillis;
+    private final int chunkMillis;
+    private final long reportMillis;
+    private final int maxStreams;
+    private final Audio audio;
+
+    private final AtomicLong connected = new AtomicLong();
+    private final AtomicLong failedConnects = new AtomicLong();
+    private final AtomicLong chunksSent = new AtomicLong();
+    private final AtomicLong sendErrors = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    private AudioLoadTest(Map<String, String> options) throws IOException {
+        this.sessions = Integer.parseInt(options.getOrDefault("sessions", "50"));
+        this.durationMillis = Long.parseLong(options.getOrDefault("duration-seconds", "60")) * 1000;
+        this.rampMillis = Long.parseLong(options.getOrDefault("ramp-seconds", "10")) * 1000;
+        this.chunkMillis = Integer.parseInt(options.getOrDefault("chunk-ms", "250"));
+        this.reportMillis = Long.parseLong(options.getOrDefault("report-seconds", "10")) * 1000;
+        this.maxStreams = Integer.parseInt(options.getOrDefault("max-streams", String.valueOf(sessions)));
+        int pcmRate = Integer.parseInt(options.getOrDefault("pcm-rate", "16000"));
+        String path = options.get("audio");
+        this.audio = path == null ? Audio.synthetic(pcmRate) : Audio.load(Path.of(path), pcmRate);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        new AudioLoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        // Without a registry the global one discards everything the application records.
+        Metrics.globalRegistry.add(new SimpleMeterRegistry());
+        // A devtools restart would load the application in a second class loader the harness cannot see into.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplication(Application.class).run(
+                "--server.port=0",
+                "--vaadin.launch-browser=false",
+                "--interviewbuddy.asr.engine=replay",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest",
+                "--interviewbuddy.audio.pcm-input-rate=" + audio.pcmRate(),
+                "--interviewbuddy.audio.pcm-input-channels=1",
+                "--interviewbuddy.asr.admission.max-streams=" + maxStreams);
+        try {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            AudioWebSocketHandler handler = context.getBean(AudioWebSocketHandler.class);
+            URI uri = URI.create("ws://localhost:" + port + "/ws/audio?channel=loadtest");
+            System.out.printf("Load test: %d sessions for %d s (ramp %d s), %s%n", sessions, durationMillis / 1000,
+                    rampMillis / 1000, audio.describe());
+
+            HttpClient client = HttpClient.newBuilder().executor(Runnable::run).build();
+            long start = System.nanoTime();
+            long end = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+            CountDownLatch done = new CountDownLatch(sessions);
+            for (int i = 0; i < sessions; i++) {
+                long startAt = start + TimeUnit.MILLISECONDS.toNanos(rampMillis * i / Math.max(1, sessions));
+                Thread.ofVirtual().name("load-session-" + i).start(() -> {
+                    try {
+                        session(client, uri, startAt, end);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            while (!done.await(reportMillis, TimeUnit.MILLISECONDS)) {
+                report(handler, start);
+            }
+            // Let in-flight results drain before the final numbers.
+            Thread.sleep(1000);
+            System.out.println("--- final ---");
+            report(handler, start);
+        } finally {
+            context.close();
+        }
+    }
+
+    /** One simulated interview: connect, stream at real-time pace, reconnect when a WebM recording ends. */
+    private void session(HttpClient client, URI uri, long startAt, long end) {
+        LockSupport.parkNanos(startAt - System.nanoTime());
+        while (System.nanoTime() < end) {
+            WebSocket socket;
+            try {
+                socket = client.newWebSocketBuilder().connectTimeout(Duration.ofSeconds(10))
+                        .buildAsync(uri, new WebSocket.Listener() {
+                        }).join();
+            } catch (RuntimeException e) {
+                failedConnects.incrementAndGet();
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+                continue;
+            }
+            connected.incrementAndGet();
+            boolean failed;
+            try {
+                failed = !stream(socket, end);
+            } finally {
+                connected.decrementAndGet();
+                socket.sendClose(WebSocket.NORMAL_CLOSURE, "done").exceptionally(e -> null).join();
+            }
+            if (failed) {
+                // Closed by the server, e.g. turned away by admission control.
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+    }
+
+    /** Returns false if a send failed. */
+    private boolean stream(WebSocket socket, long end) {
+        long next = System.nanoTime();
+        long period = TimeUnit.MILLISECONDS.toNanos(chunkMillis);
+        int chunkBytes = audio.bytesFor(chunkMillis);
+        int offset = 0;
+        while (next < end) {
+            if (offset >= audio.data().length) {
+                if (!audio.loops()) {
+                    return true;
+                }
+                offset = 0;
+            }
+            int length = Math.min(chunkBytes, audio.data().length - offset);
+            CompletableFuture<WebSocket> sent = socket.sendBinary(ByteBuffer.wrap(audio.data(), offset, length), true);
+            try {
+                sent.join();
+                chunksSent.incrementAndGet();
+            } catch (RuntimeException e) {
+                sendErrors.incrementAndGet();
+                return false;
+            }
+            offset += length;
+            next += period;
+            long lag = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - next);
+            maxLagMillis.accumulateAndGet(lag, Math::max);
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+        return true;
+    }
+
+    private void report(AudioWebSocketHandler handler, long start) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Timer latency = Metrics.globalRegistry.find("interviewbuddy.asr.transcript.latency").timer();
+        Counter dropped = Metrics.globalRegistry.find("interviewbuddy.audio.queue.dropped").counter();
+        Counter rejected = Metrics.globalRegistry.find("interviewbuddy.asr.admissions").tag("result", "rejected")
+                .counter();
+
+        StringBuilder percentiles = new StringBuilder();
+        long finals = 0;
+        if (latency != null) {
+            HistogramSnapshot snapshot = latency.takeSnapshot();
+            finals = snapshot.count();
+            for (ValueAtPercentile p : snapshot.percentileValues()) {
+                percentiles.append(String.format(" p%.0f=%.1fms", p.percentile() * 100, p.value(TimeUnit.MILLISECONDS)));
+            }
+            percentiles.append(String.format(" max=%.1fms", snapshot.max(TimeUnit.MILLISECONDS)));
+        }
+        System.out.printf(
+                "[%4ds] sessions %d/%d (server %d, failed connects %d, rejected %d) | chunks sent %d, send errors %d,"
+                        + " max client lag %d ms | dropped %d | finals %d, latency%s | heap %d MB"
+                        + " | threads %d live, %d peak%n",
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), connected.get(), sessions,
+                handler.activeSessions(), failedConnects.get(), rejected == null ? 0 : (long) rejected.count(),
+                chunksSent.get(), sendErrors.get(), maxLagMillis.get(),
+                dropped == null ? 0 : (long) dropped.count(), finals, percentiles,
+                memory.getHeapMemoryUsage().getUsed() >> 20, threads.getThreadCount(), threads.getPeakThreadCount());
+    }
+
+    /** The audio every session streams. */
+    private record Audio(byte[] data, boolean webm, int pcmRate, long durationMillis, String source) {
+
+        static Audio load(Path path, int pcmRate) throws IOException {
+            byte[] data = Files.readAllBytes(path);
+            if (WebmDemuxer.looksLikeWebm(ByteBuffer.wrap(data))) {
+                return new Audio(data, true, pcmRate, webmDuration(data), path.toString());
+            }
+            return new Audio(data, false, pcmRate, data.length / 2 * 1000L / pcmRate, path.toString());
+        }
+
+        /** Speech-like PCM: 2 s of modulated harmonics and noise, then 1.5 s of low noise, repeated. */
+        static Audio synthetic(int rate) {
+            int seconds = 35;
+            ByteBuffer pcm = ByteBuffer.allocate(rate * seconds * 2).order(ByteOrder.LITTLE_ENDIAN);
+            Random random = new Random(42);
+            for (int i = 0; i < rate * seconds; i++) {
+                double t = (double) i / rate;
+                boolean talking = t % 3.5 < 2.0;
+                double v = random.nextGaussian() * 30;
+                if (talking) {
+                    double envelope = 0.5 + 0.5 * Math.sin(2 * Math.PI * 4 * t);
+                    v += envelope * (3000 * Math.sin(2 * Math.PI * 180 * t) + 1500 * Math.sin(2 * Math.PI * 360 * t)
+                            + 700 * Math.sin(2 * Math.PI * 1100 * t));
+                }
+                pcm.putShort((short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, v)));
+            }
+            return new Audio(pcm.array(), false, rate, seconds * 1000L, "synthetic speech");
+        }
+
+        boolean loops() {
+            return !webm;
+        }
+
+        /** Bytes that play for {@code millis}; for WebM derived from the average bitrate. */
+        int bytesFor(long millis) {
+            if (webm) {
+                return (int) Math.max(1, data.length * millis / Math.max(1, durationMillis));
+            }
+            return (int) (pcmRate * millis / 1000 * 2);
+        }
+
+        String describe() {
+            return webm
+                    ? String.format("%s (WebM, %.1f s)", source, durationMillis / 1000.0)
+                    : String.format("%s (PCM16 %d Hz, %.1f s)", source, pcmRate, durationMillis / 1000.0);
+        }
+
+        private static long webmDuration(byte[] data) {
+            long[] clusterAndLast = new long[2];
+            WebmDemuxer demuxer = new WebmDemuxer(new WebmDemuxer.Listener() {
+                @Override
+                public void onHeader(byte[] initSegment) {
+                }
+
+                @Override
+                public void onClusterStart(long timecode) {
+                    clusterAndLast[0] = timecode;
+                }
+
+                @Override
+                public void onBlock(byte[] block, int offset, int length) {
+                    // Track number (a one-byte vint for audio-only files), then a signed 16-bit relative timecode.
+                    int relative = (short) (((block[offset + 1] & 0xFF) << 8) | (block[offset + 2] & 0xFF));
+                    clusterAndLast[1] = Math.max(clusterAndLast[1], clusterAndLast[0] + relative);
+                }
+            });
+            demuxer.feed(ByteBuffer.wrap(data));
+            return clusterAndLast[1] + WEBM_FRAME_MILLIS;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.ai.interviewbuddy.ws;
+
+import com.ai.interviewbuddy.Application;
+import com.ai.interviewbuddy.service.TranscriptStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Feeds session recordings (see {@link SessionRecording}, enabled with
+ * {@code interviewbuddy.recording.enabled=true}) back through the pipeline:
+ * starts the application in this JVM, streams each recording into
+ * {@code /ws/audio} exactly as it was received, with its original format and
+ * chunking, and prints the final transcript it produces.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.main=com.ai.interviewbuddy.ws.RecordingReplay \
+ *     -Dloadtest.args="recordings --speed=20 --out=target/replay"
+ * </pre>
+ *
+ * Arguments are recording directories or directories containing them.
+ * Options: {@code --speed} (10; chunks are sent at their recorded arrival
+ * times divided by this, 0 sends as fast as possible), {@code --engine}
+ * (the configured {@code interviewbuddy.asr.engine} when omitted),
+ * {@code --settle-ms} (2000; how long the transcript must stay unchanged
+ * after the last chunk before it counts as complete) and {@code --out} (a
+ * directory to write one {@code <recording>.txt} transcript per recording, for
+ * diffing between runs).
+ *
+ * Replaying faster than real time would overflow the send queue, so the
+ * application runs with the {@code BLOCK} queue policy: the replay is slowed
+ * to what the engine takes instead of losing audio, and each result reports
+ * how many chunks were dropped anyway (it should be 0 for a usable diff).
+ */
+public final class RecordingReplay {
+
+    private final List<Path> recordings;
+    private final double speed;
+    private final String engine;
+    private final long settleMillis;
+    private final Path out;
+
+    private RecordingReplay(List<Path> recordings, Map<String, String> options) {
+        this.recordings = recordings;
+        this.speed = Double.parseDouble(options.getOrDefault("speed", "10"));
+        this.engine = options.get("engine");
+        this.settleMillis = Long.parseLong(options.getOrDefault("settle-ms", "2000"));
+        this.out = options.containsKey("out") ? Path.of(options.get("out")) : null;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<Path> recordings = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                recordings.addAll(find(Path.of(arg)));
+            }
+        }
+        if (recordings.isEmpty()) {
+            System.err.println("No recordings found; pass recording directories or their parent");
+            System.exit(2);
+        }
+        new RecordingReplay(recordings, options).run();
+    }
+
+    private static List<Path> find(Path path) throws IOException {
+        if (RecordedSession.isRecording(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> children = Files.list(path)) {
+            return children.filter(RecordedSession::isRecording).sorted().toList();
+        }
+    }
+
+    private void run() throws Exception {
+        // A devtools restart would load the application in a second class loader the tool cannot see into.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // Without a registry the global one discards the drop counts reported per recording.
+        Metrics.globalRegistry.add(new SimpleMeterRegistry());
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--vaadin.launch-browser=false",
+                "--spring.datasource.url=jdbc:h2:mem:replay",
+                // Keep whole transcripts, however long the recordings.
+                "--interviewbuddy.transcript.max-utterances=100000",
+                // Hold the WebSocket thread rather than drop audio, so transcripts are reproducible.
+                "--interviewbuddy.audio.queue.policy=BLOCK",
+                "--interviewbuddy.audio.queue.block-timeout-ms=60000",
+                "--interviewbuddy.recording.enabled=false"));
+        if (engine != null) {
+            appArgs.add("--interviewbuddy.asr.engine=" + engine);
+        }
+        ConfigurableApplicationContext context = new SpringApplication(Application.class)
+                .run(appArgs.toArray(String[]::new));
+        try {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            TranscriptStore transcripts = context.getBean(TranscriptStore.class);
+            HttpClient client = HttpClient.newHttpClient();
+            if (out != null) {
+                Files.createDirectories(out);
+            }
+            double audioSeconds = 0;
+            double replaySeconds = 0;
+            for (int i = 0; i < recordings.size(); i++) {
+                RecordedSession recording = RecordedSession.open(recordings.get(i));
+                String channel = "replay-" + i;
+                long start = System.nanoTime();
+                double droppedBefore = droppedChunks();
+                replay(client, port, channel, recording);
+                List<String> lines = awaitTranscript(transcripts, channel);
+                long dropped = Math.round(droppedChunks() - droppedBefore);
+                double seconds = (System.nanoTime() - start - TimeUnit.MILLISECONDS.toNanos(settleMillis)) / 1e9;
+                double recorded = recording.durationNanos() / 1e9;
+                audioSeconds += recorded;
+                replaySeconds += seconds;
+                System.out.printf("%s: %s, %d chunks (%d dropped), %.1f s of audio replayed in %.1f s (%.1fx),"
+                        + " %d final results%n", recording.directory().getFileName(), recording.formatParameter(),
+                        recording.chunkCount(), dropped, recorded, seconds, recorded / Math.max(seconds, 1e-3),
+                        lines.size());
+                lines.forEach(line -> System.out.println("  " + line));
+                if (out != null) {
+                    Files.write(out.resolve(recording.directory().getFileName() + ".txt"), lines);
+                }
+            }
+            System.out.printf("--- %d recordings, %.1f s of audio in %.1f s (%.1fx) ---%n", recordings.size(),
+                    audioSeconds, replaySeconds, audioSeconds / Math.max(replaySeconds, 1e-3));
+        } finally {
+            context.close();
+        }
+    }
+
+    private void replay(HttpClient client, int port, String channel, RecordedSession recording) {
+        String query = "channel=" + channel + "&format=" + recording.formatParameter() + "&rate="
+                + recording.pcmInputRate();
+        if (recording.pcmChannels() != 1) {
+            System.out.printf("%s was recorded with %d PCM channels; set interviewbuddy.audio.pcm-input-channels"
+                    + " to match%n", recording.directory().getFileName(), recording.pcmChannels());
+        }
+        WebSocket socket = client.newWebSocketBuilder().connectTimeout(Duration.ofSeconds(10))
+                .buildAsync(URI.create("ws://localhost:" + port + "/ws/audio?" + query), new WebSocket.Listener() {
+                }).join();
+        long start = System.nanoTime();
+        for (int i = 0; i < recording.chunkCount(); i++) {
+            if (speed > 0) {
+                LockSupport.parkNanos(start + (long) (recording.arrivalNanos(i) / speed) - System.nanoTime());
+            }
+            socket.sendBinary(recording.chunk(i), true).join();
+        }
+        socket.sendClose(WebSocket.NORMAL_CLOSURE, "replayed").join();
+    }
+
+    /** Audio chunks the send queues have dropped so far; sessions are replayed one at a time. */
+    private static double droppedChunks() {
+        Counter dropped = Metrics.globalRegistry.find("interviewbuddy.audio.queue.dropped").counter();
+        return dropped == null ? 0 : dropped.count();
+    }
+
+    /** The channel's final results, once none has arrived for the settle time. */
+    private List<String> awaitTranscript(TranscriptStore transcripts, String channel) {
+        List<String> lines = List.of();
+        long stableSince = System.nanoTime();
+        while (System.nanoTime() - stableSince < TimeUnit.MILLISECONDS.toNanos(settleMillis)) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            List<String> current = transcripts.window(channel, Integer.MAX_VALUE, Integer.MAX_VALUE).stream()
+                    .map(TranscriptStore.Utterance::text)
+                    .toList();
+            if (!current.equals(lines)) {
+                lines = current;
+                stableSince = System.nanoTime();
+            }
+        }
+        return lines;
+    }
+}
@@ -1,6 +1,93 @@
 window.micStreamer = (() => {
+  // PCM capture: 16 kHz mono 16-bit, sent in 20 ms frames behind an 8-byte
+  // header (uint32 sequence number, uint32 capture time in ms; big-endian).
+  const TARGET_RATE = 16000;
+  const FRAME_MILLIS = 20;
+  // Frames the server has not acknowledged are kept for a reconnect, for at
+  // most as long as the server holds a dropped session (10 s by default).
+  const MAX_BUFFERED_FRAMES = 500;
+  const RECONNECT_WINDOW_MILLIS = 10000;
+  const MAX_RECONNECT_DELAY_MILLIS = 2000;
+  // Closed on purpose (normal, unsupported data, policy, no audio received): do not reconnect.
+  const FINAL_CLOSE_CODES = [1000, 1003, 1008, 4408];
+  // The server has no free ASR slot: retry later, with jitter so rejected clients do not return together.
+  const BUSY_CLOSE_CODE = 1013;
+  const MAX_BUSY_DELAY_MILLIS = 30000;
+
+  // Runs on the audio rendering thread. Input arrives in 128-sample render
+  // quanta at the context rate; each output sample is the average of the input
+  // samples it covers (a box filter, enough for speech at 16 kHz).
+  const WORKLET_SOURCE = `
+    class Pcm16CaptureProcessor extends AudioWorkletProcessor {
+      constructor(options) {
+        super();
+        const { targetRate, frameMillis } = options.processorOptions;
+        this.targetRate = targetRate;
+        this.ratio = sampleRate / targetRate;
+        this.frameSamples = Math.round(targetRate * frameMillis / 1000);
+        this.sequence = 0;
+        this.emitted = 0;
+        this.sum = 0;
+        this.count = 0;
+        this.position = 0;
+        this.newFrame();
+      }
+
+      newFrame() {
+        this.frame = new ArrayBuffer(8 + this.frameSamples * 2);
+        this.view = new DataView(this.frame);
+        this.filled = 0;
+      }
+
+      process(inputs) {
+        const samples = inputs[0] && inputs[0][0];
+        if (!samples) {
+          return true;
+        }
+        for (let i = 0; i < samples.length; i++) {
+          this.sum += samples[i];
+          this.count++;
+          this.position += 1;
+          if (this.position >= this.ratio) {
+            this.position -= this.ratio;
+            this.write(this.sum / this.count);
+            this.sum = 0;
+            this.count = 0;
+          }
+        }
+        return true;
+      }
+
+      write(sample) {
+        const s = Math.max(-1, Math.min(1, sample));
+        this.view.setInt16(8 + this.filled * 2, s < 0 ? s * 0x8000 : s * 0x7fff, true);
+        if (++this.filled === this.frameSamples) {
+          this.view.setUint32(0, this.sequence++);
+          this.view.setUint32(4, Math.round(this.emitted * 1000 / this.targetRate));
+          this.emitted += this.frameSamples;
+          this.port.postMessage(this.frame, [this.frame]);
+          this.newFrame();
+        }
+      }
+    }
+    registerProcessor("pcm16-capture", Pcm16CaptureProcessor);
+  `;
+
   let socket;
+  let mediaStream;
   let mediaRecorder;
+  let audioContext;
+  let workletUrl;
+
+  let capturing = false;
+  let resumeId;
+  let pending = [];
+  // False until the server said where to resume; live frames wait until the replay is sent.
+  let synced = false;
+  let disconnectedAt;
+  let reconnectDelay;
+  let reconnectTimer;
+  let busyDelay;
 
   const setMicStatus = (emoji, text, color) => {
     const el = document.querySelector("#micStatus");
@@ -10,36 +97,195 @@ window.micStreamer = (() => {
     }
   };
 
-  const start = async () => {
+  const openSocket = (channel, format, rate, session) => {
+    const protocol = location.protocol === "https:" ? "wss:" : "ws:";
+    const params = new URLSearchParams({ format });
+    if (channel) {
+      params.set("channel", channel);
+    }
+    if (rate) {
+      params.set("rate", rate);
+    }
+    if (session) {
+      params.set("session", session);
+    }
+    const ws = new WebSocket(`${protocol}//${location.host}/ws/audio?${params}`);
+    ws.binaryType = "arraybuffer";
+    return ws;
+  };
+
+  const sequenceOf = (frame) => new DataView(frame).getUint32(0);
+
+  const discardBefore = (sequence) => {
+    // Compared as 32-bit serial numbers, like the server does, so the order survives a wrap.
+    while (pending.length > 0 && ((sequenceOf(pending[0]) - sequence) | 0) < 0) {
+      pending.shift();
+    }
+  };
+
+  const onFrame = (frame) => {
+    pending.push(frame);
+    if (pending.length > MAX_BUFFERED_FRAMES) {
+      pending.shift();
+    }
+    if (synced && socket.readyState === WebSocket.OPEN) {
+      socket.send(frame);
+    }
+  };
+
+  // {"queued":true}: waiting for a free ASR slot.
+  // {"resume":n}: the server needs frame n next, replay from there.
+  // {"ack":n}: the server has every frame before n.
+  const onServerMessage = (ws, event) => {
+    const message = JSON.parse(event.data);
+    if (message.queued) {
+      setMicStatus("🟡", "Waiting for the server", "orange");
+    } else if (message.resume !== undefined) {
+      busyDelay = 1000;
+      setMicStatus("🟢", "Active", "green");
+      discardBefore(message.resume);
+      pending.forEach(frame => ws.send(frame));
+      if (pending.length > 0) {
+        console.log(`🔁 Resumed at frame ${message.resume}, replayed ${pending.length} frames`);
+      }
+      synced = true;
+    } else if (message.ack !== undefined) {
+      discardBefore(message.ack);
+    }
+  };
+
+  const connectPcm = (channel) => {
+    synced = false;
+    const ws = openSocket(channel, "pcm16-framed", TARGET_RATE, resumeId);
+    socket = ws;
+    // A socket replaced by a reconnect, or still connecting when Stop was pressed, is ignored.
+    ws.onmessage = (event) => {
+      if (ws === socket && capturing) {
+        onServerMessage(ws, event);
+      }
+    };
+    ws.onopen = () => {
+      if (ws !== socket || !capturing) {
+        return;
+      }
+      disconnectedAt = undefined;
+      reconnectDelay = 250;
+      setMicStatus("🟢", "Active", "green");
+    };
+    ws.onclose = (event) => {
+      if (ws !== socket || !capturing) {
+        return;
+      }
+      if (FINAL_CLOSE_CODES.includes(event.code)) {
+        console.warn(`🔌 WebSocket closed (${event.code})`);
+        stop();
+        return;
+      }
+      if (event.code === BUSY_CLOSE_CODE) {
+        // Buffered frames keep rolling; the replay after admission sends what is left.
+        const delay = Math.round(busyDelay * (0.5 + Math.random()));
+        setMicStatus("🟠", "Server busy, retrying", "orange");
+        console.warn(`🔌 Server busy, retrying in ${delay} ms`);
+        reconnectTimer = setTimeout(() => connectPcm(channel), delay);
+        busyDelay = Math.min(busyDelay * 2, MAX_BUSY_DELAY_MILLIS);
+        return;
+      }
+      disconnectedAt = disconnectedAt || Date.now();
+      if (Date.now() - disconnectedAt > RECONNECT_WINDOW_MILLIS) {
+        console.error("❌ Could not reconnect, giving up");
+        stop();
+        setMicStatus("🔴", "Disconnected", "darkred");
+        return;
+      }
+      setMicStatus("🟡", "Reconnecting", "orange");
+      console.warn(`🔌 WebSocket lost (${event.code}), reconnecting in ${reconnectDelay} ms`);
+      reconnectTimer = setTimeout(() => connectPcm(channel), reconnectDelay);
+      reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MILLIS);
+    };
+  };
+
+  // Capturing at 16 kHz lets the browser resample. Some browsers cannot
+  // connect a microphone to a context at another rate; those capture at the
+  // device rate and the worklet downsamples.
+  const createCaptureGraph = async (stream) => {
     try {
-      const stream = await navigator.mediaDevices.getUserMedia({ audio: true });
+      const context = new AudioContext({ sampleRate: TARGET_RATE });
+      try {
+        return { context, source: context.createMediaStreamSource(stream) };
+      } catch (err) {
+        context.close();
+      }
+    } catch (err) {
+      // Rate not supported; fall through to the default.
+    }
+    const context = new AudioContext();
+    return { context, source: context.createMediaStreamSource(stream) };
+  };
 
-      mediaRecorder = new MediaRecorder(stream, {
-        mimeType: "audio/webm"
-      });
+  const startPcm = async (channel) => {
+    mediaStream = await navigator.mediaDevices.getUserMedia({ audio: { channelCount: 1 } });
+    const { context, source } = await createCaptureGraph(mediaStream);
+    audioContext = context;
+    if (!workletUrl) {
+      workletUrl = URL.createObjectURL(new Blob([WORKLET_SOURCE], { type: "application/javascript" }));
+    }
+    await context.audioWorklet.addModule(workletUrl);
+    await context.resume();
+    // No outputs: the node is a sink and is rendered without being connected to the speakers.
+    const capture = new AudioWorkletNode(context, "pcm16-capture", {
+      numberOfInputs: 1,
+      numberOfOutputs: 0,
+      processorOptions: { targetRate: TARGET_RATE, frameMillis: FRAME_MILLIS }
+    });
 
-      socket = new WebSocket("ws://localhost:8080/ws/audio");
-      socket.binaryType = "arraybuffer";
+    capturing = true;
+    resumeId = crypto.randomUUID();
+    pending = [];
+    reconnectDelay = 250;
+    busyDelay = 1000;
+    capture.port.onmessage = (event) => onFrame(event.data);
+    connectPcm(channel);
+    source.connect(capture);
+    console.log(`🎙️ PCM capture started (${context.sampleRate} Hz -> ${TARGET_RATE} Hz, ${FRAME_MILLIS} ms frames)`);
+  };
 
-      socket.onopen = () => {
-        mediaRecorder.ondataavailable = (event) => {
-          if (event.data.size > 0 && socket.readyState === WebSocket.OPEN) {
-            event.data.arrayBuffer().then(buffer => {
-              socket.send(buffer);
-            });
-          }
-        };
+  const startWebm = async (channel) => {
+    mediaStream = await navigator.mediaDevices.getUserMedia({ audio: true });
 
-        mediaRecorder.start(250);
-        setMicStatus("🟢", "Active", "green");
-        console.log("🎙️ Mic recording started");
-      };
+    mediaRecorder = new MediaRecorder(mediaStream, {
+      mimeType: "audio/webm"
+    });
 
-      socket.onclose = () => {
-        console.warn("🔌 WebSocket closed");
-        setMicStatus("🔴", "Inactive", "red");
+    socket = openSocket(channel, "webm");
+    socket.onclose = (event) => {
+      console.warn(`🔌 WebSocket closed (${event.code})`);
+      if (event.code === BUSY_CLOSE_CODE) {
+        setMicStatus("🟠", "Server busy, try again later", "orange");
+        return;
+      }
+      setMicStatus("🔴", "Inactive", "red");
+    };
+    socket.onopen = () => {
+      mediaRecorder.ondataavailable = (event) => {
+        if (event.data.size > 0 && socket.readyState === WebSocket.OPEN) {
+          event.data.arrayBuffer().then(buffer => {
+            socket.send(buffer);
+          });
+        }
       };
 
+      mediaRecorder.start(250);
+      setMicStatus("🟢", "Active", "green");
+      console.log("🎙️ Mic recording started");
+    };
+  };
+
+  // mode: "pcm" (AudioWorklet, low latency) or "webm" (MediaRecorder);
+  // defaults to PCM wherever AudioWorklet is available.
+  const start = async (channel, mode) => {
+    const pcm = (mode || ("AudioWorkletNode" in window ? "pcm" : "webm")) === "pcm";
+    try {
+      await (pcm ? startPcm(channel) : startWebm(channel));
     } catch (err) {
       console.error("❌ Mic access failed:", err);
       setMicStatus("🔴", "Error", "darkred");
@@ -47,18 +293,33 @@ window.micStreamer = (() => {
   };
 
   const stop = () => {
+    capturing = false;
+    clearTimeout(reconnectTimer);
+    pending = [];
+    resumeId = undefined;
+
     if (mediaRecorder && mediaRecorder.state !== "inactive") {
       mediaRecorder.stop();
       console.log("🛑 MediaRecorder stopped.");
     }
+    mediaRecorder = undefined;
+
+    if (audioContext) {
+      audioContext.close();
+      audioContext = undefined;
+      console.log("🛑 PCM capture stopped.");
+    }
 
-    if (mediaRecorder && mediaRecorder.stream) {
-      mediaRecorder.stream.getTracks().forEach(track => track.stop());
+    if (mediaStream) {
+      mediaStream.getTracks().forEach(track => track.stop());
+      mediaStream = undefined;
       console.log("🔇 Mic input tracks stopped.");
     }
 
-    if (socket && socket.readyState === WebSocket.OPEN) {
-      socket.close();
+    if (socket && (socket.readyState === WebSocket.OPEN || socket.readyState === WebSocket.CONNECTING)) {
+      // A normal closure tells the server not to hold the stream for a reconnect; a socket
+      // still connecting after a reconnect or busy back-off must not open and take an ASR slot.
+      socket.close(1000);
       console.log("🔌 WebSocket closed.");
     }
 
@@ -0,0 +1,9 @@
+package com.ai.interviewbuddy.asr;
+
+/** Audio formats a {@link SpeechRecognizer} may be asked to decode. */
+public enum AudioEncoding {
+    /** Raw little-endian 16-bit mono PCM. */
+    LINEAR16,
+    /** Opus packets in a WebM container, as produced by MediaRecorder. */
+    WEBM_OPUS
+}
@@ -0,0 +1,155 @@
+package com.ai.interviewbuddy.asr;
+
+import com.google.api.gax.rpc.ClientStream;
+import com.google.api.gax.rpc.ClientStreamReadyObserver;
+import com.google.api.gax.rpc.ResponseObserver;
+import com.google.api.gax.rpc.StreamController;
+import com.google.cloud.speech.v1.*;
+import com.google.protobuf.ByteString;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Google Cloud Speech streaming recognition. Streams are opened on the shared
+ * client of {@link SpeechClientProvider}; interim results are requested and
+ * reported as partials.
+ */
+@Component
+@ConditionalOnProperty(name = "interviewbuddy.asr.engine", havingValue = "google", matchIfMissing = true)
+public class GoogleSpeechRecognizer implements SpeechRecognizer {
+
+    /** Where streams get their client from. */
+    @FunctionalInterface
+    interface ClientSource {
+        SpeechClient get() throws IOException;
+    }
+
+    private final ClientSource clients;
+
+    @Autowired
+    public GoogleSpeechRecognizer(SpeechClientProvider speechClientProvider) {
+        this(speechClientProvider::get);
+    }
+
+    GoogleSpeechRecognizer(ClientSource clients) {
+        this.clients = clients;
+    }
+
+    @Override
+    public String name() {
+        return "Google";
+    }
+
+    @Override
+    public boolean supports(AudioEncoding encoding) {
+        return true;
+    }
+
+    @Override
+    public boolean limitsStreamDuration() {
+        return true;
+    }
+
+    @Override
+    public RecognitionStream open(RecognitionRequest request, RecognitionListener listener) throws IOException {
+        ReadySignal ready = new ReadySignal();
+        ClientStream<StreamingRecognizeRequest> clientStream = clients.get().streamingRecognizeCallable()
+                .internalCall(new Observer(listener), ready, null);
+        RecognitionConfig recognitionConfig = RecognitionConfig.newBuilder()
+                .setEncoding(switch (request.encoding()) {
+                    case LINEAR16 -> RecognitionConfig.AudioEncoding.LINEAR16;
+                    case WEBM_OPUS -> RecognitionConfig.AudioEncoding.WEBM_OPUS;
+                })
+                .setSampleRateHertz(request.sampleRateHertz())
+                .setLanguageCode(request.languageCode())
+                .build();
+        clientStream.send(StreamingRecognizeRequest.newBuilder()
+                .setStreamingConfig(StreamingRecognitionConfig.newBuilder()
+                        .setConfig(recognitionConfig)
+                        .setInterimResults(true)
+                        .setSingleUtterance(false))
+                .build());
+        return new RecognitionStream() {
+            @Override
+            public void send(ByteString audio, long durationMillis) {
+                clientStream.send(StreamingRecognizeRequest.newBuilder()
+                        .setAudioContent(audio)
+                        .build());
+            }
+
+            @Override
+            public boolean isReady() {
+                return clientStream.isSendReady();
+            }
+
+            @Override
+            public void setOnReadyHandler(Runnable onReady) {
+                ready.handler = onReady;
+            }
+
+            @Override
+            public void closeSend() {
+                clientStream.closeSend();
+            }
+        };
+    }
+
+    /** gRPC's ready notification, forwarded to whoever waits for flow control to let up. */
+    private static final class ReadySignal implements ClientStreamReadyObserver<StreamingRecognizeRequest> {
+        volatile Runnable handler;
+
+        @Override
+        public void onReady(ClientStream<StreamingRecognizeRequest> stream) {
+            Runnable current = handler;
+            if (current != null) {
+                current.run();
+            }
+        }
+    }
+
+    private static final class Observer implements ResponseObserver<StreamingRecognizeResponse> {
+        private final RecognitionListener listener;
+
+        Observer(RecognitionListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onStart(StreamController controller) {
+        }
+
+        @Override
+        public void onResponse(StreamingRecognizeResponse response) {
+            // Interim results may come split into a stable and an unstable part; report them as one hypothesis.
+            StringBuilder hypothesis = new StringBuilder();
+            boolean hasPartial = false;
+            for (StreamingRecognitionResult result : response.getResultsList()) {
+                String transcript = result.getAlternativesCount() > 0
+                        ? result.getAlternatives(0).getTranscript()
+                        : "";
+                if (result.getIsFinal()) {
+                    listener.onFinal(transcript);
+                } else {
+                    hasPartial = true;
+                    hypothesis.append(transcript);
+                }
+            }
+            if (hasPartial) {
+                listener.onPartial(hypothesis.toString());
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            listener.onError(t);
+        }
+
+        @Override
+        public void onComplete() {
+            listener.onComplete();
+        }
+    }
+}
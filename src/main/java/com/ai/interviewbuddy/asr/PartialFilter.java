@@ -0,0 +1,28 @@
+package com.ai.interviewbuddy.asr;
+
+/**
+ * Passes an interim hypothesis only when it extends the last one that was
+ * passed with more words, so revisions and repeats of the same partial are
+ * not reported again. Reset at every final result.
+ */
+final class PartialFilter {
+    private String lastPartial = "";
+    private int lastWordCount = 0;
+
+    /** Returns the trimmed hypothesis if it should be reported, otherwise null. */
+    String accept(String hypothesis) {
+        String raw = hypothesis.trim();
+        int wc = raw.isEmpty() ? 0 : raw.split("\\s+").length;
+        if (raw.startsWith(lastPartial) && wc > lastWordCount) {
+            lastPartial = raw;
+            lastWordCount = wc;
+            return raw;
+        }
+        return null;
+    }
+
+    void reset() {
+        lastPartial = "";
+        lastWordCount = 0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ai.interviewbuddy.asr;
+
+/**
+ * Receives the results of one recognize stream. Callbacks may arrive on any
+ * thread, but never concurrently for the same stream.
+ */
+public interface RecognitionListener {
+
+    /** The current hypothesis for the utterance in progress; replaces the previous one. */
+    void onPartial(String hypothesis);
+
+    /** A finished utterance. */
+    void onFinal(String transcript);
+
+    /** The stream failed; no further callbacks follow. */
+    void onError(Throwable t);
+
+    /** The stream ended normally; no further callbacks follow. */
+    void onComplete();
+}
@@ -0,0 +1,5 @@
+package com.ai.interviewbuddy.asr;
+
+/** What a recognize stream will be fed: encoding, sample rate and spoken language. */
+public record RecognitionRequest(AudioEncoding encoding, int sampleRateHertz, String languageCode) {
+}
@@ -0,0 +1,32 @@
+package com.ai.interviewbuddy.asr;
+
+import com.google.protobuf.ByteString;
+
+/** The sending side of one open recognize stream. */
+public interface RecognitionStream {
+
+    /**
+     * Sends the next chunk of audio. The chunk wraps a buffer of the session's
+     * send queue that is reused once this method returns, so the audio must be
+     * serialized or copied before returning; an engine that keeps it must copy
+     * it. Callers only send while {@link #isReady()} is true.
+     *
+     * @param durationMillis playback length of the chunk, 0 for container headers
+     */
+    void send(ByteString audio, long durationMillis);
+
+    /** False while the engine wants the caller to hold back audio (flow control). */
+    boolean isReady();
+
+    /**
+     * Registers a callback for when {@link #isReady()} may have turned true,
+     * so a caller held back by flow control can wait instead of polling. It
+     * runs on an engine thread and must not block. Engines that are always
+     * ready never call it.
+     */
+    default void setOnReadyHandler(Runnable onReady) {
+    }
+
+    /** Signals the end of audio. Results for audio already sent may still arrive. */
+    void closeSend();
+}
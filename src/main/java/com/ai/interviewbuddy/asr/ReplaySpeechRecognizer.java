@@ -0,0 +1,153 @@
+package com.ai.interviewbuddy.asr;
+
+import com.google.protobuf.ByteString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deterministic stand-in engine that plays back a recorded transcript.
+ *
+ * The script is driven by audio time, not wall-clock time: a result scripted
+ * at 2300 ms is emitted with the chunk that brings the stream past 2300 ms of
+ * audio. The same input therefore always yields the same results, and the
+ * whole pipeline can be load-tested without a cloud service.
+ *
+ * Script lines have the form {@code <millis> <partial|final> <text>}; blank
+ * lines and lines starting with {@code #} are ignored.
+ */
+@Component
+@ConditionalOnProperty(name = "interviewbuddy.asr.engine", havingValue = "replay")
+public class ReplaySpeechRecognizer implements SpeechRecognizer {
+    private static final Logger log = LoggerFactory.getLogger(ReplaySpeechRecognizer.class);
+
+    record Event(long atMillis, boolean isFinal, String text) {
+    }
+
+    private final List<Event> script;
+    private final boolean loop;
+
+    @Autowired
+    public ReplaySpeechRecognizer(
+            @Value("${interviewbuddy.asr.replay.script:classpath:asr/replay-transcript.txt}") Resource script,
+            @Value("${interviewbuddy.asr.replay.loop:true}") boolean loop) throws IOException {
+        this(parse(script), loop);
+        log.info("Replay ASR loaded {} scripted results from {}", this.script.size(), script.getDescription());
+    }
+
+    ReplaySpeechRecognizer(List<Event> script, boolean loop) {
+        if (script.isEmpty()) {
+            throw new IllegalArgumentException("Replay script has no results");
+        }
+        this.script = List.copyOf(script);
+        this.loop = loop;
+    }
+
+    static List<Event> parse(Resource resource) throws IOException {
+        List<Event> events = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\\s+", 3);
+                if (parts.length < 3 || !(parts[1].equals("partial") || parts[1].equals("final"))) {
+                    throw new IOException("Bad replay script line " + lineNumber + ": " + line);
+                }
+                events.add(new Event(Long.parseLong(parts[0]), parts[1].equals("final"), parts[2]));
+            }
+        }
+        events.sort((a, b) -> Long.compare(a.atMillis(), b.atMillis()));
+        return events;
+    }
+
+    @Override
+    public String name() {
+        return "Replay";
+    }
+
+    @Override
+    public boolean supports(AudioEncoding encoding) {
+        return true;
+    }
+
+    @Override
+    public RecognitionStream open(RecognitionRequest request, RecognitionListener listener) {
+        return new ReplayStream(listener);
+    }
+
+    private final class ReplayStream implements RecognitionStream {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final RecognitionListener listener;
+        private final long scriptLength = script.getLast().atMillis();
+        private long audioMillis;
+        /** Audio time at which the current pass through the script started. */
+        private long passStart;
+        private int next;
+        private boolean closed;
+
+        ReplayStream(RecognitionListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void send(ByteString audio, long durationMillis) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                audioMillis += durationMillis;
+                while (next < script.size() && passStart + script.get(next).atMillis() <= audioMillis) {
+                    Event event = script.get(next++);
+                    if (event.isFinal()) {
+                        listener.onFinal(event.text());
+                    } else {
+                        listener.onPartial(event.text());
+                    }
+                    if (next == script.size() && loop) {
+                        next = 0;
+                        passStart += Math.max(1, scriptLength);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void closeSend() {
+            lock.lock();
+            try {
+                if (!closed) {
+                    closed = true;
+                    listener.onComplete();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.ai.interviewbuddy.asr;
+
+import com.google.api.gax.core.FixedCredentialsProvider;
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
+import com.google.api.gax.rpc.ClientStream;
+import com.google.api.gax.rpc.ResponseObserver;
+import com.google.api.gax.rpc.StreamController;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.speech.v1.*;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application-scoped owner of the Google {@link SpeechClient}.
+ *
+ * Credentials are parsed once and every ASR session opens its streaming call
+ * on the same client, so connections share a pool of gRPC channels instead of
+ * paying for a TLS handshake and fresh thread pools on their first chunk.
+ */
+@Component
+@ConditionalOnProperty(name = "interviewbuddy.asr.engine", havingValue = "google", matchIfMissing = true)
+public class SpeechClientProvider {
+    private static final Logger log = LoggerFactory.getLogger(SpeechClientProvider.class);
+
+    private final String credentialPath;
+    private final int channelPoolSize;
+    private final Duration keepAlive;
+    private final boolean prewarm;
+
+    private volatile SpeechClient client;
+
+    public SpeechClientProvider(
+            @Value("${interviewbuddy.asr.credentials:credentials/interview-credentials.json}") String credentialPath,
+            @Value("${interviewbuddy.asr.channel-pool-size:4}") int channelPoolSize,
+            @Value("${interviewbuddy.asr.keepalive-seconds:30}") long keepAliveSeconds,
+            @Value("${interviewbuddy.asr.prewarm:true}") boolean prewarm) {
+        this.credentialPath = credentialPath;
+        this.channelPoolSize = channelPoolSize;
+        this.keepAlive = Duration.ofSeconds(keepAliveSeconds);
+        this.prewarm = prewarm;
+    }
+
+    /**
+     * Returns the shared client, creating it on first use.
+     */
+    public SpeechClient get() throws IOException {
+        SpeechClient current = client;
+        if (current == null) {
+            synchronized (this) {
+                current = client;
+                if (current == null) {
+                    current = SpeechClient.create(createSettings(credentialPath, channelPoolSize, keepAlive));
+                    client = current;
+                    log.info("Shared SpeechClient created ({} channels, keepalive {}s)", channelPoolSize,
+                            keepAlive.toSeconds());
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Builds speech settings with credentials read from the classpath and a
+     * fixed-size channel pool. Also used by the standalone console streamer.
+     */
+    public static SpeechSettings createSettings(String credentialPath, int channelPoolSize, Duration keepAlive)
+            throws IOException {
+        GoogleCredentials credentials;
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(credentialPath)) {
+            if (in == null) {
+                throw new IOException("Credential file not found on classpath: " + credentialPath);
+            }
+            credentials = GoogleCredentials.fromStream(in)
+                    .createScoped(List.of("https://www.googleapis.com/auth/cloud-platform"));
+        }
+        InstantiatingGrpcChannelProvider channelProvider = SpeechSettings.defaultGrpcTransportProviderBuilder()
+                .setPoolSize(Math.max(1, channelPoolSize))
+                .setKeepAliveTimeDuration(keepAlive)
+                .setKeepAliveTimeoutDuration(Duration.ofSeconds(10))
+                .setKeepAliveWithoutCalls(true)
+                .build();
+        return SpeechSettings.newBuilder()
+                .setCredentialsProvider(FixedCredentialsProvider.create(credentials))
+                .setTransportChannelProvider(channelProvider)
+                .build();
+    }
+
+    /**
+     * Creates the client and opens a throwaway stream on each channel once the
+     * application is up, so the first interviewee does not pay for the token
+     * fetch and TLS handshakes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        if (!prewarm) {
+            return;
+        }
+        Thread.ofPlatform().daemon().name("asr-prewarm").start(() -> {
+            long start = System.nanoTime();
+            try {
+                SpeechClient speechClient = get();
+                StreamingRecognizeRequest configRequest = StreamingRecognizeRequest.newBuilder()
+                        .setStreamingConfig(StreamingRecognitionConfig.newBuilder()
+                                .setConfig(RecognitionConfig.newBuilder()
+                                        .setEncoding(RecognitionConfig.AudioEncoding.LINEAR16)
+                                        .setSampleRateHertz(16000)
+                                        .setLanguageCode("en-US")))
+                        .build();
+                for (int i = 0; i < Math.max(1, channelPoolSize); i++) {
+                    ClientStream<StreamingRecognizeRequest> warmup = speechClient.streamingRecognizeCallable()
+                            .splitCall(new DiscardingObserver());
+                    warmup.send(configRequest);
+                    warmup.closeSend();
+                }
+                log.info("SpeechClient pre-warmed in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (Exception e) {
+                log.warn("SpeechClient pre-warm failed, the first session will create it", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        SpeechClient current = client;
+        client = null;
+        if (current != null) {
+            current.shutdown();
+            try {
+                if (!current.awaitTermination(5, TimeUnit.SECONDS)) {
+                    current.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                current.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+            log.info("Shared SpeechClient shut down");
+        }
+    }
+
+    private static class DiscardingObserver implements ResponseObserver<StreamingRecognizeResponse> {
+        @Override
+        public void onStart(StreamController controller) {
+        }
+
+        @Override
+        public void onResponse(StreamingRecognizeResponse response) {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.debug("Pre-warm stream ended with error", t);
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
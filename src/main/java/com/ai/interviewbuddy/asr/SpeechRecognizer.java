@@ -0,0 +1,37 @@
+package com.ai.interviewbuddy.asr;
+
+import java.io.IOException;
+
+/**
+ * A streaming speech recognition engine. Exactly one is active, selected with
+ * {@code interviewbuddy.asr.engine}: {@code google} (Cloud Speech, default),
+ * {@code vosk} (in-process, offline) or {@code replay} (scripted results for
+ * load tests and demos).
+ */
+public interface SpeechRecognizer {
+
+    /** Short engine name for logs. */
+    String name();
+
+    boolean supports(AudioEncoding encoding);
+
+    /** Opens a new recognize stream that reports to {@code listener}. */
+    RecognitionStream open(RecognitionRequest request, RecognitionListener listener) throws IOException;
+
+    /**
+     * True if the engine ends streams after a fixed duration, so long
+     * sessions have to roll over to a new stream.
+     */
+    default boolean limitsStreamDuration() {
+        return false;
+    }
+
+    /**
+     * True if sending audio runs native code on the calling thread. A virtual
+     * thread stays pinned to its carrier during such a call, so sessions of
+     * these engines are sent from platform threads.
+     */
+    default boolean decodesInNativeCode() {
+        return false;
+    }
+}
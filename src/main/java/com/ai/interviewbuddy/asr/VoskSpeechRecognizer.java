@@ -0,0 +1,162 @@
+package com.ai.interviewbuddy.asr;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ByteString;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.vosk.LibVosk;
+import org.vosk.LogLevel;
+import org.vosk.Model;
+import org.vosk.Recognizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Offline recognition with an in-process Vosk (Kaldi) model, for deployments
+ * that cannot or should not reach a cloud service. Audio is decoded on the
+ * calling thread as it is sent, so there is no network round trip between a
+ * chunk and its results.
+ *
+ * Vosk only decodes raw PCM, so clients have to stream LINEAR16.
+ */
+@Component
+@ConditionalOnProperty(name = "interviewbuddy.asr.engine", havingValue = "vosk")
+public class VoskSpeechRecognizer implements SpeechRecognizer {
+    private static final Logger log = LoggerFactory.getLogger(VoskSpeechRecognizer.class);
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final Model model;
+
+    public VoskSpeechRecognizer(@Value("${interviewbuddy.asr.vosk.model-path:models/vosk-model-small-en-us}") String modelPath)
+            throws IOException {
+        Path path = Path.of(modelPath);
+        if (!Files.isDirectory(path)) {
+            throw new IOException("Vosk model directory not found: " + path.toAbsolutePath());
+        }
+        LibVosk.setLogLevel(LogLevel.WARNINGS);
+        long start = System.nanoTime();
+        this.model = new Model(path.toString());
+        log.info("Vosk model loaded from {} in {} ms", path, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public String name() {
+        return "Vosk";
+    }
+
+    @Override
+    public boolean supports(AudioEncoding encoding) {
+        return encoding == AudioEncoding.LINEAR16;
+    }
+
+    @Override
+    public boolean decodesInNativeCode() {
+        return true;
+    }
+
+    @Override
+    public RecognitionStream open(RecognitionRequest request, RecognitionListener listener) throws IOException {
+        if (!supports(request.encoding())) {
+            throw new IOException("Vosk cannot decode " + request.encoding());
+        }
+        return new VoskStream(new Recognizer(model, request.sampleRateHertz()), listener);
+    }
+
+    @PreDestroy
+    void close() {
+        model.close();
+    }
+
+    private static final class VoskStream implements RecognitionStream {
+        /** Serializes decoding with closeSend, which may come from another thread. */
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Recognizer recognizer;
+        private final RecognitionListener listener;
+        private byte[] scratch = new byte[0];
+        private String lastPartial = "";
+        private boolean closed;
+
+        VoskStream(Recognizer recognizer, RecognitionListener listener) {
+            this.recognizer = recognizer;
+            this.listener = listener;
+        }
+
+        @Override
+        public void send(ByteString audio, long durationMillis) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                int length = audio.size();
+                if (scratch.length < length) {
+                    scratch = new byte[length];
+                }
+                audio.copyTo(scratch, 0);
+                if (recognizer.acceptWaveForm(scratch, length)) {
+                    deliverFinal(recognizer.getResult());
+                } else {
+                    String partial = text(recognizer.getPartialResult(), "partial");
+                    if (!partial.equals(lastPartial)) {
+                        lastPartial = partial;
+                        listener.onPartial(partial);
+                    }
+                }
+            } catch (RuntimeException e) {
+                closed = true;
+                recognizer.close();
+                listener.onError(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void closeSend() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                deliverFinal(recognizer.getFinalResult());
+                recognizer.close();
+                listener.onComplete();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void deliverFinal(String json) {
+            lastPartial = "";
+            String transcript = text(json, "text");
+            if (!transcript.isBlank()) {
+                listener.onFinal(transcript);
+            }
+        }
+
+        private static String text(String json, String field) {
+            try {
+                JsonNode value = JSON.readTree(json).get(field);
+                return value == null ? "" : value.asText();
+            } catch (IOException e) {
+                log.debug("Unreadable Vosk result: {}", json, e);
+                return "";
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.ai.interviewbuddy.cluster;
+
+import com.ai.interviewbuddy.service.RateLimitedLog;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PreDestroy;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.DeliveryMode;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import jakarta.jms.Topic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A registry replicated over a JMS topic that every node subscribes to.
+ *
+ * Claims and releases are broadcast as they happen, so lookups are answered
+ * from a local map without a round trip. Each node re-announces all of its
+ * channels three times per lease, and a claim that has not been announced for
+ * a whole lease expires, so the channels of a node that died stop being routed
+ * to it. A node that starts asks the others to announce immediately.
+ */
+@Component
+@ConditionalOnProperty(name = "interviewbuddy.cluster.mode", havingValue = "jms")
+public class JmsSessionRegistry implements SessionRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(JmsSessionRegistry.class);
+    private static final RateLimitedLog sendFailureLog = new RateLimitedLog(log, Duration.ofSeconds(10));
+
+    static final String TOPIC = "interviewbuddy.cluster.registry";
+    private static final String OP = "op";
+    private static final String NODE = "node";
+    private static final String CLAIM = "claim";
+    private static final String RELEASE = "release";
+    private static final String ANNOUNCE = "announce";
+    private static final String SYNC = "sync";
+
+    /** A channel claimed by another node, and when that was last heard. */
+    private record Claim(String node, long seenNanos) {
+    }
+
+    private final String nodeId;
+    private final long leaseNanos;
+    private final Set<String> local = ConcurrentHashMap.newKeySet();
+    private final Map<String, Claim> remote = new ConcurrentHashMap<>();
+    private final Connection connection;
+    /** Sessions are single-threaded; claims come from Vaadin threads and announcements from the announcer. */
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private final Session producerSession;
+    private final MessageProducer producer;
+    private final ScheduledExecutorService announcer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("cluster-announcer").daemon().factory());
+
+    public JmsSessionRegistry(ConnectionFactory connectionFactory,
+            @Value("${interviewbuddy.cluster.node-id:}") String nodeId,
+            @Value("${interviewbuddy.cluster.lease-ms:15000}") long leaseMillis) throws JMSException {
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.leaseNanos = TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+        this.connection = connectionFactory.createConnection();
+        try {
+            Session consumerSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Topic topic = consumerSession.createTopic(TOPIC);
+            consumerSession.createConsumer(topic, null, true).setMessageListener(this::onMessage);
+            producerSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            producer = producerSession.createProducer(topic);
+            producer.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+            connection.start();
+        } catch (JMSException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        Gauge.builder("interviewbuddy.cluster.channels", local, Set::size)
+                .description("Channels whose UIs are on this node")
+                .tag("owner", "local")
+                .register(Metrics.globalRegistry);
+        Gauge.builder("interviewbuddy.cluster.channels", remote, Map::size)
+                .description("Channels whose UIs are on other nodes")
+                .tag("owner", "remote")
+                .register(Metrics.globalRegistry);
+        send(SYNC, List.of());
+        long announceMillis = Math.max(1, leaseMillis / 3);
+        announcer.scheduleWithFixedDelay(this::announce, announceMillis, announceMillis, TimeUnit.MILLISECONDS);
+        log.info("Cluster node {} joined the session registry", this.nodeId);
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void claim(String channel) {
+        local.add(channel);
+        // Sent even if already claimed, so a channel that moved here is taken back from the node it left.
+        send(CLAIM, List.of(channel));
+    }
+
+    @Override
+    public void release(String channel) {
+        if (local.remove(channel)) {
+            send(RELEASE, List.of(channel));
+        }
+    }
+
+    @Override
+    public String owner(String channel) {
+        if (local.contains(channel)) {
+            return nodeId;
+        }
+        Claim claim = remote.get(channel);
+        return claim == null || System.nanoTime() - claim.seenNanos() > leaseNanos ? null : claim.node();
+    }
+
+    private void announce() {
+        long now = System.nanoTime();
+        remote.values().removeIf(claim -> now - claim.seenNanos() > leaseNanos);
+        if (!local.isEmpty()) {
+            send(ANNOUNCE, local);
+        }
+    }
+
+    /** Channels are sent newline-separated in the body; ids are UUIDs. */
+    private void send(String op, Collection<String> channels) {
+        sendLock.lock();
+        try {
+            TextMessage message = producerSession.createTextMessage(String.join("\n", channels));
+            message.setStringProperty(OP, op);
+            message.setStringProperty(NODE, nodeId);
+            producer.send(message);
+        } catch (JMSException e) {
+            sendFailureLog.warn("⚠️ Session registry update failed", e);
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    private void onMessage(Message message) {
+        try {
+            String node = message.getStringProperty(NODE);
+            String op = message.getStringProperty(OP);
+            String body = ((TextMessage) message).getText();
+            List<String> channels = body == null || body.isEmpty() ? List.of() : List.of(body.split("\n"));
+            long now = System.nanoTime();
+            switch (op) {
+                case CLAIM, ANNOUNCE -> {
+                    for (String channel : channels) {
+                        remote.put(channel, new Claim(node, now));
+                        if (CLAIM.equals(op) && local.remove(channel)) {
+                            log.info("Channel {} moved to node {}", channel, node);
+                        }
+                    }
+                }
+                case RELEASE -> channels.forEach(channel ->
+                        remote.computeIfPresent(channel, (k, claim) -> claim.node().equals(node) ? null : claim));
+                case SYNC -> announcer.execute(this::announce);
+                default -> log.debug("Ignoring session registry message {}", op);
+            }
+        } catch (JMSException | RuntimeException e) {
+            log.warn("⚠️ Bad session registry message", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws JMSException {
+        announcer.shutdownNow();
+        if (!local.isEmpty()) {
+            send(RELEASE, local);
+        }
+        connection.close();
+    }
+}
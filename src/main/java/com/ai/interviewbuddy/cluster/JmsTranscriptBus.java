@@ -0,0 +1,160 @@
+package com.ai.interviewbuddy.cluster;
+
+import com.ai.interviewbuddy.service.RateLimitedLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.DeliveryMode;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import jakarta.jms.Topic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Routes results between nodes over a JMS topic.
+ *
+ * A result for a channel this node owns, or one no node has claimed, is
+ * delivered on the publishing thread exactly like {@link LocalTranscriptBus},
+ * so a single replica pays nothing for the broker. Anything else is sent to
+ * the topic addressed to the owning node, whose subscription selects only
+ * its own messages. All sends go through one producer, which keeps the results
+ * of a channel in order; they are non-persistent, as a result is useless once
+ * its UI has moved on. A final line that cannot be sent is delivered here
+ * instead, so it is still stored, and a hypothesis is dropped.
+ */
+@Component
+@ConditionalOnProperty(name = "interviewbuddy.cluster.mode", havingValue = "jms")
+public class JmsTranscriptBus implements TranscriptBus {
+
+    private static final Logger log = LoggerFactory.getLogger(JmsTranscriptBus.class);
+    private static final RateLimitedLog sendFailureLog = new RateLimitedLog(log, Duration.ofSeconds(10));
+
+    static final String TOPIC = "interviewbuddy.cluster.transcripts";
+    private static final String TARGET_NODE = "targetNode";
+    private static final String CHANNEL = "channel";
+    private static final String KIND = "kind";
+    private static final String SENT_AT = "sentAt";
+    private static final String PARTIAL = "partial";
+    private static final String FINAL = "final";
+
+    /** Wall clock, so it includes any clock difference between the two nodes. */
+    private static final Timer REMOTE_LATENCY = Timer.builder("interviewbuddy.cluster.transcript.latency")
+            .description("Time from publishing a result on one node to delivering it on another")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(Metrics.globalRegistry);
+
+    private static final Counter LOCAL = counter("local");
+    private static final Counter REMOTE = counter("remote");
+    private static final Counter FAILED = counter("failed");
+
+    private static Counter counter(String route) {
+        return Counter.builder("interviewbuddy.cluster.transcripts")
+                .description("Results published on this node, by how they reached their UI's node")
+                .tag("route", route)
+                .register(Metrics.globalRegistry);
+    }
+
+    private final SessionRegistry registry;
+    private final TranscriptDelivery delivery;
+    private final Connection connection;
+    /** Sessions are single-threaded and every ASR sender publishes through this one. */
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private final Session producerSession;
+    private final MessageProducer producer;
+
+    public JmsTranscriptBus(ConnectionFactory connectionFactory, SessionRegistry registry,
+            TranscriptDelivery delivery) throws JMSException {
+        this.registry = registry;
+        this.delivery = delivery;
+        this.connection = connectionFactory.createConnection();
+        try {
+            Session consumerSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            Topic topic = consumerSession.createTopic(TOPIC);
+            String selector = TARGET_NODE + " = '" + registry.nodeId().replace("'", "''") + "'";
+            consumerSession.createConsumer(topic, selector).setMessageListener(this::onMessage);
+            producerSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            producer = producerSession.createProducer(topic);
+            producer.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+            connection.start();
+        } catch (JMSException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void publishPartial(String channel, String hypothesis) {
+        String owner = registry.owner(channel);
+        if (owner == null || owner.equals(registry.nodeId())) {
+            LOCAL.increment();
+            delivery.deliverPartial(channel, hypothesis);
+        } else if (!send(owner, channel, PARTIAL, hypothesis)) {
+            FAILED.increment();
+        }
+    }
+
+    @Override
+    public void publishFinal(String channel, String text) {
+        String owner = registry.owner(channel);
+        if (owner == null || owner.equals(registry.nodeId())) {
+            LOCAL.increment();
+            delivery.deliverFinal(channel, text);
+        } else if (!send(owner, channel, FINAL, text)) {
+            FAILED.increment();
+            delivery.deliverFinal(channel, text);
+        }
+    }
+
+    private boolean send(String owner, String channel, String kind, String text) {
+        sendLock.lock();
+        try {
+            TextMessage message = producerSession.createTextMessage(text);
+            message.setStringProperty(TARGET_NODE, owner);
+            message.setStringProperty(CHANNEL, channel);
+            message.setStringProperty(KIND, kind);
+            message.setLongProperty(SENT_AT, System.currentTimeMillis());
+            producer.send(message);
+            REMOTE.increment();
+            return true;
+        } catch (JMSException e) {
+            sendFailureLog.warn("⚠️ Could not send a transcript to node {}", owner, e);
+            return false;
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    private void onMessage(Message message) {
+        try {
+            String channel = message.getStringProperty(CHANNEL);
+            String text = ((TextMessage) message).getText();
+            if (FINAL.equals(message.getStringProperty(KIND))) {
+                delivery.deliverFinal(channel, text);
+            } else {
+                delivery.deliverPartial(channel, text);
+            }
+            REMOTE_LATENCY.record(Math.max(0, System.currentTimeMillis() - message.getLongProperty(SENT_AT)),
+                    TimeUnit.MILLISECONDS);
+        } catch (JMSException | RuntimeException e) {
+            log.warn("⚠️ Could not deliver a transcript from another node", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws JMSException {
+        connection.close();
+    }
+}
@@ -0,0 +1,41 @@
+package com.ai.interviewbuddy.cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** The registry of a single node: every claimed channel is hosted here. */
+@Component
+@ConditionalOnProperty(name = "interviewbuddy.cluster.mode", havingValue = "local", matchIfMissing = true)
+public class LocalSessionRegistry implements SessionRegistry {
+
+    private final String nodeId;
+    private final Set<String> channels = ConcurrentHashMap.newKeySet();
+
+    public LocalSessionRegistry(@Value("${interviewbuddy.cluster.node-id:}") String nodeId) {
+        this.nodeId = nodeId.isBlank() ? "local" : nodeId;
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void claim(String channel) {
+        channels.add(channel);
+    }
+
+    @Override
+    public void release(String channel) {
+        channels.remove(channel);
+    }
+
+    @Override
+    public String owner(String channel) {
+        return channels.contains(channel) ? nodeId : null;
+    }
+}
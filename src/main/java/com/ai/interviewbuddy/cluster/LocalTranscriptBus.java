@@ -0,0 +1,30 @@
+package com.ai.interviewbuddy.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * The bus of a single node, where the UIs of every channel live in this JVM:
+ * results are delivered on the publishing thread, as if the ASR session
+ * pushed them itself.
+ */
+@Component
+@ConditionalOnProperty(name = "interviewbuddy.cluster.mode", havingValue = "local", matchIfMissing = true)
+public class LocalTranscriptBus implements TranscriptBus {
+
+    private final TranscriptDelivery delivery;
+
+    public LocalTranscriptBus(TranscriptDelivery delivery) {
+        this.delivery = delivery;
+    }
+
+    @Override
+    public void publishPartial(String channel, String hypothesis) {
+        delivery.deliverPartial(channel, hypothesis);
+    }
+
+    @Override
+    public void publishFinal(String channel, String text) {
+        delivery.deliverFinal(channel, text);
+    }
+}
@@ -0,0 +1,24 @@
+package com.ai.interviewbuddy.cluster;
+
+/**
+ * Which node hosts the UIs of a transcript channel.
+ *
+ * The audio WebSocket of a session may land on a different replica than its
+ * Vaadin UI, which is sticky to the node that created it. That node claims the
+ * channel when a UI registers and releases it when the Vaadin session ends, so
+ * transcripts produced anywhere can be routed to it.
+ */
+public interface SessionRegistry {
+
+    /** This node's id, unique within the cluster. */
+    String nodeId();
+
+    /** Records that the UIs of {@code channel} live on this node. */
+    void claim(String channel);
+
+    /** Forgets this node's claim on {@code channel}, if it still holds it. */
+    void release(String channel);
+
+    /** The node hosting {@code channel}'s UIs, or null if no node has claimed it. */
+    String owner(String channel);
+}
@@ -0,0 +1,16 @@
+package com.ai.interviewbuddy.cluster;
+
+/**
+ * Carries recognition results from the ASR session that produced them to the
+ * node that hosts the channel's UIs (see {@link SessionRegistry}), where
+ * {@link TranscriptDelivery} stores and pushes them. Results for one channel
+ * arrive in the order they were published.
+ */
+public interface TranscriptBus {
+
+    /** Publishes the current interim hypothesis of {@code channel}. */
+    void publishPartial(String channel, String hypothesis);
+
+    /** Publishes a final transcript line of {@code channel}. */
+    void publishFinal(String channel, String text);
+}
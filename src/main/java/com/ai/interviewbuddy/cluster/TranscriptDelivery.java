@@ -0,0 +1,32 @@
+package com.ai.interviewbuddy.cluster;
+
+import com.ai.interviewbuddy.service.PushService;
+import com.ai.interviewbuddy.service.TranscriptStore;
+import org.springframework.stereotype.Component;
+
+/**
+ * The node-local end of the {@link TranscriptBus}: final lines are appended to
+ * the channel's transcript, which announces them to the persister and the
+ * speculative answerer, and every result is queued for the channel's UIs.
+ * Only the node that owns the channel delivers, so each line is stored once.
+ */
+@Component
+public class TranscriptDelivery {
+
+    private final TranscriptStore transcriptStore;
+    private final PushService pushService;
+
+    public TranscriptDelivery(TranscriptStore transcriptStore, PushService pushService) {
+        this.transcriptStore = transcriptStore;
+        this.pushService = pushService;
+    }
+
+    public void deliverPartial(String channel, String hypothesis) {
+        pushService.pushPartial(channel, hypothesis);
+    }
+
+    public void deliverFinal(String channel, String text) {
+        transcriptStore.append(channel, text);
+        pushService.pushTranscript(channel, text);
+    }
+}
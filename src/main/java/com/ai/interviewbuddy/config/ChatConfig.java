@@ -2,12 +2,19 @@ package com.ai.interviewbuddy.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatModel;
 
 @Configuration
 public class ChatConfig {
+    /**
+     * Built on the first question rather than at startup; with the
+     * fast-startup profile that also defers creating the chat model and its
+     * Vertex AI client.
+     */
     @Bean
+    @Lazy
     public ChatClient chatClient(ChatModel chatModel) {
         return ChatClient.builder(chatModel).build();
     }
@@ -0,0 +1,51 @@
+package com.ai.interviewbuddy.config;
+
+import com.ai.interviewbuddy.asr.SpeechRecognizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Threads for blocking ASR and LLM work.
+ *
+ * Follows {@code spring.threads.virtual.enabled}, the same switch that moves
+ * Tomcat's request threads onto virtual threads, so the whole I/O path is in
+ * one mode or the other. The exception is an ASR engine that decodes through
+ * JNI on the sending thread: it would pin virtual threads to their carriers,
+ * so its sessions always get platform threads.
+ */
+@Configuration
+public class ExecutionConfig {
+    private static final Logger log = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    /** Creates the per-session ASR sender threads (unstarted). */
+    @Bean
+    public ThreadFactory asrThreadFactory(Environment environment, SpeechRecognizer recognizer) {
+        if (recognizer.decodesInNativeCode()) {
+            log.info("ASR session workers run on platform threads ({} decodes in native code)", recognizer.name());
+        } else if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("ASR session workers run on virtual threads");
+            return Thread.ofVirtual().name("asr-sender-", 0).factory();
+        }
+        return Thread.ofPlatform().name("asr-sender-", 0).daemon().factory();
+    }
+
+    /** Runs blocking chat model calls off the Vaadin UI thread. */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService llmExecutor(Environment environment,
+            @Value("${interviewbuddy.llm.platform-threads:8}") int platformThreads) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("LLM calls run on virtual threads");
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("llm-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(platformThreads, Thread.ofPlatform().name("llm-", 0).daemon().factory());
+    }
+}
@@ -0,0 +1,20 @@
+package com.ai.interviewbuddy.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans that stay eager when the {@code fast-startup} profile turns on lazy
+ * initialization. Meter registries are created at startup so that nothing
+ * recorded before the first scrape is lost.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerMeterRegistries() {
+        return LazyInitializationExcludeFilter.forBeanTypes(MeterRegistry.class);
+    }
+}
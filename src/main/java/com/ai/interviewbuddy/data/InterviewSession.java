@@ -0,0 +1,37 @@
+package com.ai.interviewbuddy.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/** One interview, identified by the transcript channel of the Vaadin session it ran in. */
+@Entity
+@Table(name = "interview_session")
+public class InterviewSession {
+
+    @Id
+    @Column(length = 64)
+    private String channel;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    protected InterviewSession() {
+    }
+
+    public InterviewSession(String channel, Instant startedAt) {
+        this.channel = channel;
+        this.startedAt = startedAt;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+}
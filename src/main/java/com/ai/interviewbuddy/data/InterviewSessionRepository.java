@@ -0,0 +1,6 @@
+package com.ai.interviewbuddy.data;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface InterviewSessionRepository extends JpaRepository<InterviewSession, String> {
+}
@@ -0,0 +1,69 @@
+package com.ai.interviewbuddy.data;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * A final transcript utterance. Ids come from a sequence with a large
+ * allocation size rather than an identity column, so Hibernate can send a
+ * whole batch of inserts in one JDBC batch.
+ */
+@Entity
+@Table(name = "transcript_utterance",
+        indexes = @Index(name = "idx_utterance_session", columnList = "session_channel, spoken_at"))
+public class TranscriptUtterance {
+
+    /** Longest text the column holds; longer utterances are truncated before they are stored. */
+    public static final int MAX_TEXT_LENGTH = 4000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transcript_utterance_seq")
+    @SequenceGenerator(name = "transcript_utterance_seq", allocationSize = 100)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "session_channel")
+    private InterviewSession session;
+
+    @Column(nullable = false, length = MAX_TEXT_LENGTH)
+    private String text;
+
+    @Column(nullable = false)
+    private Instant spokenAt;
+
+    protected TranscriptUtterance() {
+    }
+
+    public TranscriptUtterance(InterviewSession session, String text, Instant spokenAt) {
+        this.session = session;
+        this.text = text;
+        this.spokenAt = spokenAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public InterviewSession getSession() {
+        return session;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Instant getSpokenAt() {
+        return spokenAt;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ai.interviewbuddy.data;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TranscriptUtteranceRepository extends JpaRepository<TranscriptUtterance, Long> {
+
+    List<TranscriptUtterance> findBySessionChannelOrderBySpokenAt(String channel);
+
+    /** Deletes the utterances of a session in one statement, without loading them. */
+    @Modifying
+    @Query("delete from TranscriptUtterance u where u.session.channel = :channel")
+    int deleteBySessionChannel(@Param("channel") String channel);
+}
@@ -1,14 +1,19 @@
 package com.ai.interviewbuddy.debug;
 
-import jakarta.annotation.PostConstruct;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
 
+/**
+ * Reports whether the credentials are on the class path. Runs once the
+ * application is serving, so the class path lookup is not part of startup.
+ */
 @Component
 public class ClasspathTestRunner {
 
-    @PostConstruct
+    @EventListener(ApplicationReadyEvent.class)
     public void verifyCredentialFile() {
         String path = "credentials/interview-credentials.json";
         InputStream in = getClass().getClassLoader().getResourceAsStream(path);
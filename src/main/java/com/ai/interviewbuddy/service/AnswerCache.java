@@ -0,0 +1,282 @@
+package com.ai.interviewbuddy.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Answers already generated for a question under the same interview setup.
+ *
+ * A standalone question such as "tell me about a time you disagreed with your
+ * manager" is keyed on the setup and its normalized text, so candidates with
+ * the same setup share its answer whatever was said before. A short follow-up
+ * that refers back ("why did you do that?") only makes sense after the
+ * conversation it was asked in, so for those the earlier conversation is part
+ * of the key as well.
+ *
+ * A question is first looked up by its normalized text. With
+ * {@code interviewbuddy.cache.embedding=model} and an {@link EmbeddingModel}
+ * bean, the most similar cached question under the same setup (and, for a
+ * follow-up, the same conversation) is used next if its cosine similarity
+ * reaches the threshold. This build includes no
+ * embedding starter, so that mode needs one added (for example
+ * {@code spring-ai-starter-model-vertex-ai-embedding}); without it only exact
+ * matches are served. Entries expire after the TTL and the least recently
+ * used ones are evicted beyond the size limit.
+ */
+@Component
+public class AnswerCache {
+    private static final Logger log = LoggerFactory.getLogger(AnswerCache.class);
+
+    private static final Set<String> FILLERS = Set.of("um", "uh", "erm", "hmm", "so", "okay", "ok", "well");
+    /** Words that point back into the conversation; a short question with one of them is a follow-up. */
+    private static final Set<String> REFERENCES = Set.of("that", "this", "it", "those", "these", "there", "then",
+            "why", "more", "else", "again", "elaborate");
+    private static final int FOLLOW_UP_MAX_WORDS = 7;
+
+    /** {@code context} is the earlier conversation for a follow-up and empty for a standalone question. */
+    private record Key(InterviewSetup setup, String context, String question) {
+    }
+
+    private record Entry(float[] vector, String answer, long createdMillis) {
+    }
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final double similarityThreshold;
+    private final int minQuestionWords;
+    private final EmbeddingModel embeddingModel;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Access-ordered, so iteration starts at the least recently used entry. */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private final Counter exactHits = counter("exact");
+    private final Counter semanticHits = counter("semantic");
+    private final Counter misses = counter("miss");
+
+    public AnswerCache(@Value("${interviewbuddy.cache.enabled:true}") boolean enabled,
+            @Value("${interviewbuddy.cache.max-entries:1000}") int maxEntries,
+            @Value("${interviewbuddy.cache.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${interviewbuddy.cache.similarity-threshold:0.95}") double similarityThreshold,
+            @Value("${interviewbuddy.cache.min-question-words:4}") int minQuestionWords,
+            @Value("${interviewbuddy.cache.embedding:none}") String embedding,
+            ObjectProvider<EmbeddingModel> embeddingModels) {
+        this.enabled = enabled;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMillis = Duration.ofMinutes(ttlMinutes).toMillis();
+        this.similarityThreshold = similarityThreshold;
+        this.minQuestionWords = minQuestionWords;
+        this.embeddingModel = "model".equals(embedding) ? embeddingModels.getIfAvailable() : null;
+        if ("model".equals(embedding) && embeddingModel == null) {
+            log.warn("interviewbuddy.cache.embedding=model but no EmbeddingModel is configured; "
+                    + "serving exact matches only");
+        }
+        Gauge.builder("interviewbuddy.answer.cache.size", this, AnswerCache::size)
+                .description("Answers currently cached")
+                .register(Metrics.globalRegistry);
+    }
+
+    private static Counter counter(String result) {
+        return Counter.builder("interviewbuddy.answer.cache.requests")
+                .description("Answer cache lookups by result")
+                .tag("result", result)
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Returns the cached answer for {@code question} under {@code setup}, or
+     * null. {@code context} is the conversation before the question; it only
+     * matters when the question is a follow-up.
+     */
+    public String lookup(InterviewSetup setup, String context, String question) {
+        String normalized = normalize(question);
+        if (!cacheable(normalized)) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Key key = key(setup, context, normalized);
+        lock.lock();
+        try {
+            Entry exact = entries.get(key);
+            if (exact != null && !expired(exact, now)) {
+                exactHits.increment();
+                return exact.answer();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (embeddingModel == null) {
+            misses.increment();
+            return null;
+        }
+
+        // Embed outside the lock; a model call may take a while.
+        float[] vector = embed(normalized);
+        if (vector == null) {
+            misses.increment();
+            return null;
+        }
+        lock.lock();
+        try {
+            Key best = null;
+            float bestScore = 0;
+            for (Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<Key, Entry> candidate = it.next();
+                if (expired(candidate.getValue(), now)) {
+                    it.remove();
+                    continue;
+                }
+                Key candidateKey = candidate.getKey();
+                float[] candidateVector = candidate.getValue().vector();
+                if (candidateVector == null || !candidateKey.setup().equals(setup)
+                        || !candidateKey.context().equals(key.context())) {
+                    continue;
+                }
+                float score = dot(vector, candidateVector);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = candidate.getKey();
+                }
+            }
+            if (best != null && bestScore >= similarityThreshold) {
+                semanticHits.increment();
+                log.debug("Semantic cache hit ({}) for \"{}\" via \"{}\"", bestScore, normalized, best.question());
+                return entries.get(best).answer();
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /** Caches a complete answer. */
+    public void put(InterviewSetup setup, String context, String question, String answer) {
+        String normalized = normalize(question);
+        if (!cacheable(normalized) || answer.isBlank()) {
+            return;
+        }
+        // Without a model the vector would never be compared.
+        float[] vector = embed(normalized);
+        Entry entry = new Entry(vector, answer, System.currentTimeMillis());
+        lock.lock();
+        try {
+            entries.put(key(setup, context, normalized), entry);
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries) {
+                eldest.next();
+                eldest.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean cacheable(String normalized) {
+        return enabled && normalized.chars().filter(c -> c == ' ').count() + 1 >= minQuestionWords;
+    }
+
+    private boolean expired(Entry entry, long now) {
+        return now - entry.createdMillis() > ttlMillis;
+    }
+
+    private static Key key(InterviewSetup setup, String context, String normalized) {
+        return new Key(setup, isFollowUp(normalized) ? context : "", normalized);
+    }
+
+    /** A short question that refers back to what was said before it. */
+    static boolean isFollowUp(String normalized) {
+        String[] words = normalized.split(" ");
+        if (words.length > FOLLOW_UP_MAX_WORDS) {
+            return false;
+        }
+        for (String word : words) {
+            if (REFERENCES.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The model's unit-length vector for the question, or null without a
+     * model or when the call fails; such entries only match exactly.
+     */
+    private float[] embed(String normalized) {
+        if (embeddingModel == null) {
+            return null;
+        }
+        try {
+            return unitLength(embeddingModel.embed(normalized));
+        } catch (RuntimeException e) {
+            log.warn("Embedding failed, caching \"{}\" for exact matches only", normalized, e);
+            return null;
+        }
+    }
+
+    private static float[] unitLength(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+
+    /** Cosine similarity of two unit-length vectors. */
+    private static float dot(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return 0;
+        }
+        float sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /** Lower-case words without punctuation or filler words, single-spaced. */
+    static String normalize(String question) {
+        StringBuilder out = new StringBuilder(question.length());
+        for (String word : question.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}']+")) {
+            if (word.isEmpty() || FILLERS.contains(word)) {
+                continue;
+            }
+            if (!out.isEmpty()) {
+                out.append(' ');
+            }
+            out.append(word);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.ai.interviewbuddy.service;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Asks the chat model for interview help.
+ *
+ * In streaming mode the answer arrives as a {@link Flux} of text frames: the
+ * model's tokens are batched into a frame per frame interval, or sooner once
+ * 64 tokens are buffered, which keeps the number of UI pushes bounded no
+ * matter how finely the model streams.
+ *
+ * Questions that were already answered under the same setup are served from
+ * the {@link AnswerCache} as a single frame without calling the model.
+ */
+@Service
+public class AssistantService {
+    private static final Logger log = LoggerFactory.getLogger(AssistantService.class);
+
+    /** Upper bound on tokens per frame, so a burst does not wait for the full interval. */
+    private static final int MAX_TOKENS_PER_FRAME = 64;
+
+    private final ChatClient chatClient;
+    private final AnswerCache answerCache;
+    private final Scheduler llmScheduler;
+    private final boolean streaming;
+    private final Duration frameInterval;
+
+    private final Timer firstTokenTimer = Timer.builder("interviewbuddy.llm.first.token")
+            .description("Time from request to the first token of an answer")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(Metrics.globalRegistry);
+    private final Timer answerTimer = Timer.builder("interviewbuddy.llm.answer")
+            .description("Time from request to the complete answer")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(Metrics.globalRegistry);
+
+    public AssistantService(@Lazy ChatClient chatClient, AnswerCache answerCache,
+            @Qualifier("llmExecutor") ExecutorService llmExecutor,
+            @Value("${interviewbuddy.llm.streaming:true}") boolean streaming,
+            @Value("${interviewbuddy.llm.frame-interval-ms:50}") long frameIntervalMillis) {
+        this.chatClient = chatClient;
+        this.answerCache = answerCache;
+        this.llmScheduler = Schedulers.fromExecutorService(llmExecutor, "llm");
+        this.streaming = streaming;
+        this.frameInterval = Duration.ofMillis(frameIntervalMillis);
+    }
+
+    /**
+     * Returns the answer to {@code prompt} as text frames to be appended in
+     * order. Without streaming the flux emits the whole answer as one frame.
+     */
+    public Flux<String> answer(PromptBuilder.InterviewPrompt prompt) {
+        return Mono.fromCallable(() -> Optional.ofNullable(answerCache.lookup(prompt.setup(), prompt.context(),
+                        prompt.question())))
+                .subscribeOn(llmScheduler)
+                .flatMapMany(cached -> cached.isPresent() ? Flux.just(cached.get()) : generate(prompt));
+    }
+
+    private Flux<String> generate(PromptBuilder.InterviewPrompt prompt) {
+        long start = System.nanoTime();
+        AtomicBoolean firstToken = new AtomicBoolean(true);
+        StringBuilder full = new StringBuilder();
+        Flux<String> tokens = streaming
+                ? chatClient.prompt().system(prompt.system()).user(prompt.user()).stream().content()
+                : Mono.fromCallable(() -> chatClient.prompt().system(prompt.system()).user(prompt.user()).call()
+                        .content())
+                        .subscribeOn(llmScheduler)
+                        .flux();
+        return tokens
+                .filter(token -> token != null && !token.isEmpty())
+                .doOnNext(token -> {
+                    if (firstToken.compareAndSet(true, false)) {
+                        firstTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                    full.append(token);
+                })
+                .bufferTimeout(MAX_TOKENS_PER_FRAME, frameInterval)
+                .map(batch -> String.join("", batch))
+                .doOnComplete(() -> {
+                    answerTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    answerCache.put(prompt.setup(), prompt.context(), prompt.question(), full.toString());
+                })
+                .doOnError(e -> log.warn("AI answer failed", e));
+    }
+}
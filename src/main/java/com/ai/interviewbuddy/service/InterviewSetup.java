@@ -0,0 +1,6 @@
+package com.ai.interviewbuddy.service;
+
+/** The interview setup chosen in the UI; fixed for the duration of an interview. */
+public record InterviewSetup(String interviewType, String role, String responseStyle, String framework, String tone,
+        String format) {
+}
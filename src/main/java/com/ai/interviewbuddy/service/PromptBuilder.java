@@ -0,0 +1,94 @@
+package com.ai.interviewbuddy.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assembles the assistant prompt from the interview setup and the recent
+ * conversation.
+ *
+ * The setup part never changes during an interview, so it is rendered once
+ * per setup and sent as the system prompt: a stable prefix the model provider
+ * can cache between requests. Only the conversation window, bounded by a
+ * token budget, is built per request.
+ */
+@Component
+public class PromptBuilder {
+
+    private static final int MAX_CACHED_SETUPS = 256;
+
+    private final TranscriptStore transcriptStore;
+    private final int tokenBudget;
+    private final int maxUtterances;
+    private final Map<InterviewSetup, String> systemPrompts = new ConcurrentHashMap<>();
+
+    public PromptBuilder(TranscriptStore transcriptStore,
+            @Value("${interviewbuddy.prompt.token-budget:1500}") int tokenBudget,
+            @Value("${interviewbuddy.prompt.max-utterances:40}") int maxUtterances) {
+        this.transcriptStore = transcriptStore;
+        this.tokenBudget = tokenBudget;
+        this.maxUtterances = Math.max(1, maxUtterances);
+    }
+
+    /**
+     * A prompt ready for the model. {@code question} is the latest utterance
+     * and {@code context} the part of {@code user} before it (empty when the
+     * question is the whole window); together with the setup they identify
+     * the request for caching.
+     */
+    public record InterviewPrompt(InterviewSetup setup, String question, String context, String system,
+            String user) {
+    }
+
+    /** Returns null when nothing has been transcribed on {@code channel} yet. */
+    public InterviewPrompt build(InterviewSetup setup, String channel) {
+        List<TranscriptStore.Utterance> window = transcriptStore.window(channel, tokenBudget, maxUtterances);
+        if (window.isEmpty()) {
+            return null;
+        }
+        String context = context(window);
+        String question = window.getLast().text();
+        return new InterviewPrompt(setup, question, context, systemPrompt(setup),
+                context + "User just said:\n" + question);
+    }
+
+    String systemPrompt(InterviewSetup setup) {
+        String cached = systemPrompts.get(setup);
+        if (cached != null) {
+            return cached;
+        }
+        if (systemPrompts.size() >= MAX_CACHED_SETUPS) {
+            systemPrompts.clear();
+        }
+        return systemPrompts.computeIfAbsent(setup, s -> """
+                You're helping someone in a %s interview for a %s role.
+                Response Style: %s
+                Preferred Framework: %s
+                Tone: %s
+                Format: Please answer in the form of a %s.
+                """.formatted(s.interviewType(), s.role(), s.responseStyle(), s.framework(), s.tone(), s.format()));
+    }
+
+    /** The utterances before the latest one, as the head of the user prompt. */
+    private static String context(List<TranscriptStore.Utterance> window) {
+        int last = window.size() - 1;
+        if (last == 0) {
+            return "";
+        }
+        int length = 32;
+        for (int i = 0; i < last; i++) {
+            length += window.get(i).text().length() + 3;
+        }
+        StringBuilder prompt = new StringBuilder(length);
+        prompt.append("Earlier in the conversation:\n");
+        for (int i = 0; i < last; i++) {
+            prompt.append("- ").append(window.get(i).text()).append('\n');
+        }
+        prompt.append('\n');
+        return prompt.toString();
+    }
+}
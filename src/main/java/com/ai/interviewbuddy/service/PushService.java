@@ -1,24 +1,112 @@
 package com.ai.interviewbuddy.service;
 
+import com.ai.interviewbuddy.cluster.SessionRegistry;
 import com.ai.interviewbuddy.views.mainview.MainView;
 import com.vaadin.flow.component.UI;
-import com.vaadin.flow.server.Command;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.atomic.AtomicReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Delivers transcripts to the browser tabs of the user who is speaking.
+ *
+ * Every Vaadin session gets an opaque channel id which the page passes to
+ * the audio WebSocket, so results produced for a connection are routed to the
+ * UIs of that session only. Lines are collected per UI and written with one
+ * push per flush interval instead of one round trip per result. Interim
+ * hypotheses are shown in a separate element that is edited in place: only
+ * the changed suffix is sent, at most once per partial interval. UIs are
+ * dropped when they detach.
+ *
+ * The channel is claimed in the {@link SessionRegistry} when a UI registers,
+ * so transcripts recognized on other nodes are routed here, and released when
+ * the Vaadin session ends rather than with its last UI, so a reload does not
+ * lose lines.
+ */
 @Service
-public class PushService {
+public class PushService implements VaadinServiceInitListener {
 
     private static final Logger log = LoggerFactory.getLogger(PushService.class);
 
-    private final AtomicReference<UI> activeUi = new AtomicReference<>();
+    private static final RateLimitedLog pushFailureLog = new RateLimitedLog(log, Duration.ofSeconds(10));
 
-    public void register(UI ui) {
-        log.info("✅ UI registered for live push: {}", ui);
-        activeUi.set(ui);
+    private static final String CHANNEL_ATTRIBUTE = PushService.class.getName() + ".channel";
+
+    /** From the first update queued for a UI until its push is written, including the UI lock wait. */
+    private static final Timer PUSH_LATENCY = Timer.builder("interviewbuddy.push.latency")
+            .description("Time transcript updates wait for their push")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(Metrics.globalRegistry);
+
+    private final Map<String, Set<UI>> channels = new ConcurrentHashMap<>();
+    private final Map<UI, Outbox> outboxes = new ConcurrentHashMap<>();
+    private final Queue<UI> dirty = new ConcurrentLinkedQueue<>();
+    private final SessionRegistry sessionRegistry;
+    private final long partialIntervalNanos;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("push-flusher").daemon().factory());
+
+    public PushService(SessionRegistry sessionRegistry,
+            @Value("${interviewbuddy.push.flush-interval-ms:100}") long flushIntervalMillis,
+            @Value("${interviewbuddy.push.partial-interval-ms:250}") long partialIntervalMillis) {
+        this.sessionRegistry = sessionRegistry;
+        this.partialIntervalNanos = TimeUnit.MILLISECONDS.toNanos(partialIntervalMillis);
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers a UI for live transcripts and returns the channel id of its
+     * session. Must be called while the session is locked, e.g. from a view
+     * constructor.
+     */
+    public String register(UI ui) {
+        VaadinSession session = ui.getSession();
+        String channel = (String) session.getAttribute(CHANNEL_ATTRIBUTE);
+        if (channel == null) {
+            channel = UUID.randomUUID().toString();
+            session.setAttribute(CHANNEL_ATTRIBUTE, channel);
+        }
+        if (outboxes.putIfAbsent(ui, new Outbox()) != null) {
+            // Already registered, e.g. by an earlier view in the same UI; its detach listener is in place.
+            return channel;
+        }
+        channels.computeIfAbsent(channel, k -> ConcurrentHashMap.newKeySet()).add(ui);
+        sessionRegistry.claim(channel);
+        String registered = channel;
+        ui.addDetachListener(e -> unregister(registered, ui));
+        log.info("✅ UI registered for live push: {} on channel {}", ui.getUIId(), channel);
+        return channel;
+    }
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.getSource().addSessionDestroyListener(e -> {
+            String channel = (String) e.getSession().getAttribute(CHANNEL_ATTRIBUTE);
+            if (channel != null) {
+                sessionRegistry.release(channel);
+            }
+        });
     }
 
     public static void sendTranscript(String text) {
@@ -27,18 +115,187 @@ public class PushService {
         });
     }
 
-    public void pushTranscript(String line) {
-        UI ui = activeUi.get();
-        if (ui != null) {
-            log.info("📡 Pushing transcript to UI: {}", line);
-            ui.access((Command) () -> {
-                ui.getPage().executeJs(
-                        "const el = document.querySelector('#transcript');" +
-                                "if (el) el.textContent += '\\n📡 ' + $0;",
-                        line);
-            });
-        } else {
-            log.warn("⚠️ No active UI registered. Skipping transcript: {}", line);
+    /** Queues a final transcript line for every UI listening on {@code channel}. */
+    public void pushTranscript(String channel, String line) {
+        Set<UI> uis = channel == null ? null : channels.get(channel);
+        if (uis == null || uis.isEmpty()) {
+            log.debug("No UI registered on channel {}. Skipping transcript", channel);
+            return;
+        }
+        for (UI ui : uis) {
+            Outbox outbox = outboxes.get(ui);
+            if (outbox != null && outbox.add(line)) {
+                dirty.add(ui);
+            }
+        }
+    }
+
+    /**
+     * Queues the current interim hypothesis for every UI listening on
+     * {@code channel}. Only the latest hypothesis is kept; it is sent at most
+     * once per partial interval, as the changed suffix of what the UI shows.
+     */
+    public void pushPartial(String channel, String hypothesis) {
+        Set<UI> uis = channel == null ? null : channels.get(channel);
+        if (uis == null || uis.isEmpty()) {
+            return;
+        }
+        for (UI ui : uis) {
+            Outbox outbox = outboxes.get(ui);
+            if (outbox != null && outbox.partial(hypothesis)) {
+                dirty.add(ui);
+            }
+        }
+    }
+
+    /** Writes everything queued since the last flush, one push per UI. */
+    private void flush() {
+        long now = System.nanoTime();
+        List<UI> throttled = new ArrayList<>();
+        UI ui;
+        while ((ui = dirty.poll()) != null) {
+            Outbox outbox = outboxes.get(ui);
+            if (outbox == null) {
+                continue;
+            }
+            Update update = outbox.drain(now, partialIntervalNanos);
+            if (update.partialPending()) {
+                throttled.add(ui);
+            }
+            if (update.isEmpty()) {
+                continue;
+            }
+            UI target = ui;
+            try {
+                ui.access(() -> {
+                    target.getPage().executeJs("""
+                                const el = document.querySelector('#transcript');
+                                if (el) {
+                                  let partial = el.querySelector(':scope > .partial');
+                                  if (!partial) {
+                                    partial = document.createElement('span');
+                                    partial.className = 'partial';
+                                    el.appendChild(partial);
+                                  }
+                                  if ($0) partial.before($0);
+                                  if ($1 >= 0) partial.textContent = partial.textContent.slice(0, $1) + $2;
+                                  el.scrollTop = el.scrollHeight;
+                                }
+                            """, update.finals(), update.keep(), update.suffix());
+                    PUSH_LATENCY.record(System.nanoTime() - update.queuedNanos(), TimeUnit.NANOSECONDS);
+                });
+            } catch (UIDetachedException e) {
+                unregisterEverywhere(ui);
+            } catch (RuntimeException e) {
+                pushFailureLog.warn("⚠️ Transcript push failed", e);
+            }
+        }
+        // A hypothesis held back by the partial interval goes out with a later flush.
+        dirty.addAll(throttled);
+    }
+
+    private void unregister(String channel, UI ui) {
+        outboxes.remove(ui);
+        channels.computeIfPresent(channel, (k, uis) -> {
+            uis.remove(ui);
+            return uis.isEmpty() ? null : uis;
+        });
+        log.debug("UI {} unregistered from channel {}", ui.getUIId(), channel);
+    }
+
+    private void unregisterEverywhere(UI ui) {
+        channels.forEach((channel, uis) -> {
+            if (uis.contains(ui)) {
+                unregister(channel, ui);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdownNow();
+    }
+
+    /**
+     * One flush for a UI: final lines to append, then the partial edit
+     * (keep the first {@code keep} characters and append {@code suffix}, or
+     * leave it alone when {@code keep} is negative).
+     */
+    record Update(String finals, int keep, String suffix, boolean partialPending, long queuedNanos) {
+        boolean isEmpty() {
+            return finals.isEmpty() && keep < 0;
+        }
+    }
+
+    /** What is waiting for the next flush of one UI, and the partial it currently shows. */
+    static final class Outbox {
+        private final StringBuilder finals = new StringBuilder();
+        private String shownPartial = "";
+        private String pendingPartial;
+        private long lastPartialNanos;
+        private boolean scheduled;
+        private long queuedNanos;
+
+        /** Adds a final line; returns true if the UI needs to be marked dirty. */
+        synchronized boolean add(String line) {
+            finals.append("\n📡 ").append(line);
+            // The final replaces the hypothesis it grew out of.
+            pendingPartial = "";
+            return schedule();
+        }
+
+        synchronized boolean partial(String hypothesis) {
+            pendingPartial = hypothesis.isBlank() ? "" : "\n📝 " + hypothesis.trim();
+            return schedule();
+        }
+
+        private boolean schedule() {
+            boolean wasScheduled = scheduled;
+            scheduled = true;
+            if (!wasScheduled) {
+                queuedNanos = System.nanoTime();
+            }
+            return !wasScheduled;
+        }
+
+        synchronized Update drain(long now, long partialIntervalNanos) {
+            scheduled = false;
+            String appended = finals.toString();
+            finals.setLength(0);
+            int keep = -1;
+            String suffix = "";
+            boolean held = false;
+            if (pendingPartial != null && !pendingPartial.equals(shownPartial)) {
+                // Clearing is never throttled, so a final is not followed by a stale hypothesis.
+                if (pendingPartial.isEmpty() || now - lastPartialNanos >= partialIntervalNanos) {
+                    keep = commonPrefixLength(shownPartial, pendingPartial);
+                    suffix = pendingPartial.substring(keep);
+                    shownPartial = pendingPartial;
+                    pendingPartial = null;
+                    lastPartialNanos = now;
+                } else {
+                    held = true;
+                    scheduled = true;
+                    // Waiting out the partial interval is deliberate, not queueing delay.
+                    queuedNanos = now;
+                }
+            } else {
+                pendingPartial = null;
+            }
+            return new Update(appended, keep, suffix, held, queuedNanos);
+        }
+
+        private static int commonPrefixLength(String a, String b) {
+            int n = Math.min(a.length(), b.length());
+            int i = 0;
+            while (i < n && a.charAt(i) == b.charAt(i)) {
+                i++;
+            }
+            // Do not split a surrogate pair between the kept and the sent part.
+            if (i > 0 && i < b.length() && Character.isLowSurrogate(b.charAt(i))) {
+                i--;
+            }
+            return i;
         }
     }
 }
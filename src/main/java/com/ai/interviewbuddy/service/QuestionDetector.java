@@ -0,0 +1,53 @@
+package com.ai.interviewbuddy.service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Guesses whether an utterance is a question or prompt the candidate will
+ * need to answer: it ends with a question mark (when the recognizer
+ * punctuates), starts with an interrogative or auxiliary verb, or starts with
+ * one of the usual interview prompts such as "tell me about".
+ */
+final class QuestionDetector {
+
+    private static final int MIN_WORDS = 4;
+
+    private static final Set<String> OPENERS = Set.of("what", "why", "how", "when", "where", "who", "whom", "which",
+            "whose", "can", "could", "would", "will", "do", "does", "did", "is", "are", "was", "were", "have", "has",
+            "should", "shall");
+
+    private static final List<String> PROMPTS = List.of("tell me", "tell us", "describe", "walk me through",
+            "walk us through", "explain", "give me an example", "talk about", "talk me through", "share an example",
+            "imagine", "suppose", "design");
+
+    private QuestionDetector() {
+    }
+
+    static boolean looksLikeQuestion(String utterance) {
+        String text = utterance.strip().toLowerCase(Locale.ROOT);
+        // Count words without punctuation, so "? ? ? ?" is not four of them.
+        String[] words = text.replaceAll("[^\\p{L}\\p{N}' ]", " ").strip().split("\\s+");
+        if (words[0].isEmpty() || words.length < MIN_WORDS) {
+            return false;
+        }
+        if (text.endsWith("?")) {
+            return true;
+        }
+        // Skip a leading filler such as "so," or "okay" before looking at the opener.
+        int first = words.length > 1 && Set.of("so", "okay", "ok", "alright", "and", "now", "well").contains(words[0])
+                ? 1
+                : 0;
+        if (OPENERS.contains(words[first])) {
+            return true;
+        }
+        String rest = String.join(" ", List.of(words).subList(first, words.length));
+        for (String prompt : PROMPTS) {
+            if (rest.startsWith(prompt + " ") || rest.equals(prompt)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
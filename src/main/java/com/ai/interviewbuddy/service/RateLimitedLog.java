@@ -0,0 +1,69 @@
+package com.ai.interviewbuddy.service;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs at most one message per interval and counts the rest, for warnings
+ * that can fire for every audio chunk or every session at once (an ASR outage
+ * hits all streams together). The next message that gets through reports how
+ * many were suppressed since the last one.
+ *
+ * Share one instance per call site, typically as a static field next to the
+ * logger.
+ */
+public final class RateLimitedLog {
+
+    private final Logger log;
+    private final long intervalNanos;
+    private final AtomicLong nextNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder suppressed = new LongAdder();
+
+    public RateLimitedLog(Logger log, Duration interval) {
+        this.log = log;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    public void warn(String format, Object... args) {
+        if (log.isWarnEnabled() && acquire()) {
+            log.warn(withSuppressed(format), withSuppressed(args));
+        }
+    }
+
+    public void error(String format, Object... args) {
+        if (log.isErrorEnabled() && acquire()) {
+            log.error(withSuppressed(format), withSuppressed(args));
+        }
+    }
+
+    private boolean acquire() {
+        long now = System.nanoTime();
+        long next = nextNanos.get();
+        if (now - next >= 0 && nextNanos.compareAndSet(next, now + intervalNanos)) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    private String withSuppressed(String format) {
+        return format + " ({} similar messages suppressed)";
+    }
+
+    /** Adds the suppressed count as the last placeholder argument, ahead of a trailing exception. */
+    private Object[] withSuppressed(Object[] args) {
+        long count = suppressed.sumThenReset();
+        boolean throwable = args.length > 0 && args[args.length - 1] instanceof Throwable;
+        int insertAt = throwable ? args.length - 1 : args.length;
+        Object[] result = Arrays.copyOf(args, args.length + 1);
+        result[insertAt] = count;
+        if (throwable) {
+            result[args.length] = args[args.length - 1];
+        }
+        return result;
+    }
+}
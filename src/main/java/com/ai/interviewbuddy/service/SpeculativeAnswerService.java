@@ -0,0 +1,151 @@
+package com.ai.interviewbuddy.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Starts generating an answer as soon as the interviewer's question is
+ * finalized, before anyone asks for help.
+ *
+ * When a final utterance looks like a question and the session has a
+ * complete setup, its answer is generated in the background. Pressing help
+ * for the same question while it runs joins that generation, replaying what
+ * has been produced so far; once finished, the answer is served from the
+ * {@link AnswerCache}. A newer question cancels a speculation nobody has
+ * joined yet. Off unless {@code interviewbuddy.llm.speculative.enabled} is set.
+ */
+@Service
+public class SpeculativeAnswerService {
+    private static final Logger log = LoggerFactory.getLogger(SpeculativeAnswerService.class);
+
+    private final AssistantService assistantService;
+    private final PromptBuilder promptBuilder;
+    private final TranscriptStore transcriptStore;
+    private final boolean enabled;
+
+    /** At most one generation per channel, for its latest question. */
+    private final Map<String, Speculation> pending = new ConcurrentHashMap<>();
+
+    private final Counter started = counter("started");
+    private final Counter joined = counter("joined");
+    private final Counter cancelled = counter("cancelled");
+
+    public SpeculativeAnswerService(AssistantService assistantService, PromptBuilder promptBuilder,
+            TranscriptStore transcriptStore,
+            @Value("${interviewbuddy.llm.speculative.enabled:false}") boolean enabled) {
+        this.assistantService = assistantService;
+        this.promptBuilder = promptBuilder;
+        this.transcriptStore = transcriptStore;
+        this.enabled = enabled;
+    }
+
+    private static Counter counter(String outcome) {
+        return Counter.builder("interviewbuddy.llm.speculative")
+                .description("Speculative answer generations by outcome")
+                .tag("outcome", outcome)
+                .register(Metrics.globalRegistry);
+    }
+
+    @EventListener
+    public void onFinal(TranscriptFinalizedEvent event) {
+        if (!enabled || !QuestionDetector.looksLikeQuestion(event.text())) {
+            return;
+        }
+        InterviewSetup setup = transcriptStore.setup(event.channel());
+        if (setup == null) {
+            return;
+        }
+        PromptBuilder.InterviewPrompt prompt = promptBuilder.build(setup, event.channel());
+        if (prompt == null) {
+            return;
+        }
+        Speculation speculation = new Speculation(prompt);
+        Speculation previous = pending.put(event.channel(), speculation);
+        if (previous != null && previous.cancelUnlessJoined()) {
+            cancelled.increment();
+        }
+        log.debug("Speculating an answer to \"{}\" on {}", prompt.question(), event.channel());
+        started.increment();
+        speculation.start(() -> pending.remove(event.channel(), speculation));
+    }
+
+    /**
+     * Returns the speculative answer for {@code prompt} on {@code channel} if
+     * one is still being generated, or null.
+     */
+    public Flux<String> join(String channel, PromptBuilder.InterviewPrompt prompt) {
+        Speculation speculation = channel == null ? null : pending.get(channel);
+        if (speculation == null || !speculation.matches(prompt)) {
+            return null;
+        }
+        Flux<String> frames = speculation.join();
+        if (frames != null) {
+            joined.increment();
+        }
+        return frames;
+    }
+
+    private enum State {
+        OPEN, JOINED, CANCELLED
+    }
+
+    private final class Speculation {
+        private final PromptBuilder.InterviewPrompt prompt;
+        /** Replays every frame to late subscribers, so a join sees the whole answer. */
+        private final Sinks.Many<String> frames = Sinks.many().replay().all();
+        private volatile Disposable upstream;
+        /** Joining and cancelling race from different threads; whichever moves it off OPEN first wins. */
+        private final AtomicReference<State> state = new AtomicReference<>(State.OPEN);
+
+        Speculation(PromptBuilder.InterviewPrompt prompt) {
+            this.prompt = prompt;
+        }
+
+        void start(Runnable onDone) {
+            upstream = assistantService.answer(prompt)
+                    .doFinally(signal -> onDone.run())
+                    .subscribe(frames::tryEmitNext, frames::tryEmitError, frames::tryEmitComplete);
+            if (state.get() == State.CANCELLED) {
+                // Cancelled before there was anything to dispose.
+                upstream.dispose();
+            }
+        }
+
+        boolean matches(PromptBuilder.InterviewPrompt other) {
+            return prompt.setup().equals(other.setup()) && prompt.question().equals(other.question());
+        }
+
+        /** The answer's frames, or null if a newer question already cancelled it. */
+        Flux<String> join() {
+            return state.compareAndSet(State.OPEN, State.JOINED) || state.get() == State.JOINED
+                    ? frames.asFlux()
+                    : null;
+        }
+
+        /** Stops generating unless a UI is already showing this answer. */
+        boolean cancelUnlessJoined() {
+            Disposable current = upstream;
+            if ((current != null && current.isDisposed()) || !state.compareAndSet(State.OPEN, State.CANCELLED)) {
+                return false;
+            }
+            if (current != null) {
+                current.dispose();
+            }
+            // Nobody subscribed, and join() no longer hands the frames out; this only releases the replay buffer.
+            frames.tryEmitComplete();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.ai.interviewbuddy.service;
+
+/**
+ * Cheap approximation of how many LLM tokens a text costs, for budgeting
+ * prompts without running the model's tokenizer.
+ *
+ * Counts one token per word plus one per six further characters of long
+ * words, and one per punctuation mark, which tracks BPE tokenizers on English
+ * conversational text to within a few percent. Single pass, no allocation.
+ */
+public final class TokenEstimator {
+
+    private static final int CHARS_PER_EXTRA_TOKEN = 6;
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(CharSequence text) {
+        int tokens = 0;
+        int wordLength = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c) || c == '\'') {
+                wordLength++;
+                continue;
+            }
+            tokens += wordTokens(wordLength);
+            wordLength = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + wordTokens(wordLength);
+    }
+
+    private static int wordTokens(int length) {
+        return length == 0 ? 0 : 1 + (length - 1) / CHARS_PER_EXTRA_TOKEN;
+    }
+}
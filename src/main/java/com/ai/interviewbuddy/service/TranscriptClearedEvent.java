@@ -0,0 +1,5 @@
+package com.ai.interviewbuddy.service;
+
+/** Published when the utterances of a session's transcript have been cleared. */
+public record TranscriptClearedEvent(String channel) {
+}
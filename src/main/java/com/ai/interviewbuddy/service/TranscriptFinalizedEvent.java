@@ -0,0 +1,5 @@
+package com.ai.interviewbuddy.service;
+
+/** Published when a final utterance has been added to a session's transcript. */
+public record TranscriptFinalizedEvent(String channel, String text, long timestampMillis) {
+}
@@ -0,0 +1,335 @@
+package com.ai.interviewbuddy.service;
+
+import com.ai.interviewbuddy.data.InterviewSession;
+import com.ai.interviewbuddy.data.InterviewSessionRepository;
+import com.ai.interviewbuddy.data.TranscriptUtterance;
+import com.ai.interviewbuddy.data.TranscriptUtteranceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores final transcript utterances in the database, write-behind.
+ *
+ * Listening for {@link TranscriptFinalizedEvent} costs the ASR thread one
+ * non-blocking offer to a bounded queue; if the queue is full the utterance
+ * is counted and not persisted, so a slow database never delays transcript
+ * delivery. A single writer thread collects what arrives within the flush
+ * interval, up to the batch size, and inserts it in one transaction, which
+ * Hibernate sends as JDBC batches. If a batch fails its utterances are
+ * retried one per transaction, so only the offending one is lost. On shutdown
+ * the writer drains the queue before it stops.
+ *
+ * A {@link TranscriptClearedEvent} deletes the channel's stored utterances.
+ * It goes through the same queue, so utterances finalized before the clear
+ * are written first and deleted with the rest, and later ones survive; a few
+ * queue slots are kept free for clears so a backlog cannot drop them.
+ *
+ * A channel the {@link TranscriptStore} no longer holds, e.g. after its idle
+ * TTL or a restart, can be restored from the stored utterances.
+ */
+@Service
+public class TranscriptPersister {
+    private static final Logger log = LoggerFactory.getLogger(TranscriptPersister.class);
+    private static final RateLimitedLog dropLog = new RateLimitedLog(log, Duration.ofSeconds(10));
+
+    private static final Timer BATCH_TIMER = Timer.builder("interviewbuddy.transcript.persist.batch")
+            .description("Time to write one batch of utterances")
+            .register(Metrics.globalRegistry);
+
+    /** Queue slots only clears may use. */
+    private static final int CLEAR_RESERVE = 64;
+
+    /** Work for the writer thread, applied in the order it was queued. */
+    private sealed interface Write permits Pending, Clear {
+        String channel();
+    }
+
+    private record Pending(String channel, String text, long timestampMillis) implements Write {
+    }
+
+    private record Clear(String channel) implements Write {
+    }
+
+    private final InterviewSessionRepository sessions;
+    private final TranscriptUtteranceRepository utterances;
+    private final TranscriptStore transcriptStore;
+    private final TransactionTemplate transaction;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long shutdownTimeoutMillis;
+    private final int queueCapacity;
+    private final BlockingQueue<Write> queue;
+    /** Loads stored transcripts off the caller's thread, typically a UI request. */
+    private final ExecutorService reader = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("transcript-restore-", 0).factory());
+    /** Channels known to have a session row, so it is only looked up once. */
+    private final Set<String> knownChannels = ConcurrentHashMap.newKeySet();
+    private Thread writer;
+    private volatile boolean running = true;
+
+    private final Counter written = counter("written");
+    private final Counter dropped = counter("dropped");
+    private final Counter failed = counter("failed");
+
+    public TranscriptPersister(InterviewSessionRepository sessions, TranscriptUtteranceRepository utterances,
+            TranscriptStore transcriptStore, PlatformTransactionManager transactionManager,
+            @Value("${interviewbuddy.persistence.enabled:true}") boolean enabled,
+            @Value("${interviewbuddy.persistence.queue-capacity:10000}") int queueCapacity,
+            @Value("${interviewbuddy.persistence.batch-size:100}") int batchSize,
+            @Value("${interviewbuddy.persistence.flush-interval-ms:500}") long flushIntervalMillis,
+            @Value("${interviewbuddy.persistence.shutdown-timeout-ms:5000}") long shutdownTimeoutMillis) {
+        this.sessions = sessions;
+        this.utterances = utterances;
+        this.transcriptStore = transcriptStore;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.queue = new ArrayBlockingQueue<>(this.queueCapacity + CLEAR_RESERVE);
+        Gauge.builder("interviewbuddy.transcript.persist.queue", queue, BlockingQueue::size)
+                .description("Utterances waiting to be written")
+                .register(Metrics.globalRegistry);
+    }
+
+    /** Starts the writer once the bean is fully constructed rather than from its constructor. */
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            writer = Thread.ofPlatform().name("transcript-writer").daemon().start(this::run);
+        }
+    }
+
+    private static Counter counter(String result) {
+        return Counter.builder("interviewbuddy.transcript.persist")
+                .description("Utterances handed to the database writer by result")
+                .tag("result", result)
+                .register(Metrics.globalRegistry);
+    }
+
+    @EventListener
+    public void onFinal(TranscriptFinalizedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Pending pending = new Pending(event.channel(), truncate(event.text()), event.timestampMillis());
+        if (!running || queue.size() >= queueCapacity || !queue.offer(pending)) {
+            dropped.increment();
+            dropLog.warn("Transcript persistence is behind, utterance on {} not stored", event.channel());
+        }
+    }
+
+    @EventListener
+    public void onCleared(TranscriptClearedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!running || !queue.offer(new Clear(event.channel()))) {
+            log.error("Could not queue the deletion of the stored transcript of {}", event.channel());
+        }
+    }
+
+    /**
+     * Loads the stored utterances of {@code channel} into the transcript store
+     * in the background, if the store does not hold the channel. A channel
+     * that is only cleared stays empty. The result is true if anything was
+     * restored.
+     */
+    public CompletableFuture<Boolean> restore(String channel) {
+        if (!enabled || channel == null || transcriptStore.contains(channel)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> load(channel), reader);
+        } catch (RejectedExecutionException e) {
+            // Shutting down.
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    private boolean load(String channel) {
+        try {
+            List<TranscriptStore.Utterance> restored = new ArrayList<>();
+            for (TranscriptUtterance row : utterances.findBySessionChannelOrderBySpokenAt(channel)) {
+                restored.add(new TranscriptStore.Utterance(row.getText(), TokenEstimator.estimate(row.getText()),
+                        row.getSpokenAt().toEpochMilli()));
+            }
+            if (!transcriptStore.restore(channel, restored)) {
+                return false;
+            }
+            log.info("Restored {} transcript utterances on {}", restored.size(), channel);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Restoring the transcript of {} failed", channel, e);
+            return false;
+        }
+    }
+
+    private void run() {
+        List<Write> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Write first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Let a burst fill the batch for up to one flush interval, without delaying shutdown.
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize && running) {
+                    long remaining = deadline - System.nanoTime();
+                    Write next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+            } catch (InterruptedException e) {
+                // Shutdown timed out; write what was collected and stop.
+                running = false;
+                queue.drainTo(batch);
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static String truncate(String text) {
+        if (text.length() <= TranscriptUtterance.MAX_TEXT_LENGTH) {
+            return text;
+        }
+        int end = TranscriptUtterance.MAX_TEXT_LENGTH;
+        if (Character.isHighSurrogate(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+
+    /** Applies the batch in order: utterances queued before a clear are written before it deletes them. */
+    private void write(List<Write> batch) {
+        List<Pending> inserts = new ArrayList<>(batch.size());
+        for (Write next : batch) {
+            switch (next) {
+                case Pending pending -> inserts.add(pending);
+                case Clear clear -> {
+                    writeUtterances(inserts);
+                    inserts.clear();
+                    delete(clear.channel());
+                }
+            }
+        }
+        writeUtterances(inserts);
+    }
+
+    private void delete(String channel) {
+        try {
+            Integer deleted = transaction.execute(status -> utterances.deleteBySessionChannel(channel));
+            log.debug("Deleted {} stored utterances on {}", deleted, channel);
+        } catch (RuntimeException e) {
+            log.error("Deleting the stored transcript of {} failed", channel, e);
+        }
+    }
+
+    private void writeUtterances(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            insert(batch);
+            written.increment(batch.size());
+            return;
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                failed.increment();
+                log.error("Writing a transcript utterance on {} failed", batch.getFirst().channel(), e);
+                return;
+            }
+            log.warn("Writing {} transcript utterances failed, retrying them one by one", batch.size(), e);
+        } finally {
+            BATCH_TIMER.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        for (Pending p : batch) {
+            try {
+                insert(List.of(p));
+                written.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.error("Writing a transcript utterance on {} failed", p.channel(), e);
+            }
+        }
+    }
+
+    private void insert(List<Pending> batch) {
+        transaction.executeWithoutResult(status -> {
+            Map<String, InterviewSession> byChannel = new LinkedHashMap<>();
+            for (Pending p : batch) {
+                byChannel.computeIfAbsent(p.channel(), channel -> session(channel, p.timestampMillis()));
+            }
+            List<TranscriptUtterance> rows = new ArrayList<>(batch.size());
+            for (Pending p : batch) {
+                rows.add(new TranscriptUtterance(byChannel.get(p.channel()), p.text(),
+                        Instant.ofEpochMilli(p.timestampMillis())));
+            }
+            utterances.saveAll(rows);
+        });
+        batch.forEach(p -> knownChannels.add(p.channel()));
+    }
+
+    /** The session row for {@code channel}, created on its first utterance; a reference without a query after that. */
+    private InterviewSession session(String channel, long firstTimestampMillis) {
+        if (knownChannels.contains(channel) || sessions.existsById(channel)) {
+            return sessions.getReferenceById(channel);
+        }
+        return sessions.save(new InterviewSession(channel, Instant.ofEpochMilli(firstTimestampMillis)));
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        reader.shutdownNow();
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(shutdownTimeoutMillis);
+        if (writer.isAlive()) {
+            writer.interrupt();
+            writer.join(shutdownTimeoutMillis);
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} transcript utterances were not stored before shutdown", queue.size());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.ai.interviewbuddy.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Final transcript utterances per transcript channel (one per Vaadin
+ * session), kept so the assistant can be given the conversation and not just
+ * the last line.
+ *
+ * Each utterance's token estimate is computed once when it is added, so
+ * selecting a window for a prompt only walks the newest entries. The store
+ * also remembers the interview setup the session's UI has chosen, so work
+ * started from the audio side can build the same prompts. Channels that have
+ * been quiet for longer than the idle TTL are dropped.
+ *
+ * Every appended utterance is announced as a {@link TranscriptFinalizedEvent},
+ * and every clear as a {@link TranscriptClearedEvent}.
+ */
+@Service
+public class TranscriptStore {
+
+    public record Utterance(String text, int tokens, long timestampMillis) {
+    }
+
+    private final Map<String, SessionTranscript> transcripts = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher events;
+    private final int maxUtterances;
+    private final long idleTtlMillis;
+    private volatile long lastSweepMillis = System.currentTimeMillis();
+
+    public TranscriptStore(ApplicationEventPublisher events,
+            @Value("${interviewbuddy.transcript.max-utterances:500}") int maxUtterances,
+            @Value("${interviewbuddy.transcript.idle-ttl-minutes:120}") long idleTtlMinutes) {
+        this.events = events;
+        this.maxUtterances = Math.max(1, maxUtterances);
+        this.idleTtlMillis = Duration.ofMinutes(idleTtlMinutes).toMillis();
+    }
+
+    public void append(String channel, String text) {
+        if (channel == null || text.isBlank()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String utterance = text.strip();
+        transcripts.computeIfAbsent(channel, k -> new SessionTranscript())
+                .append(new Utterance(utterance, TokenEstimator.estimate(utterance), now), maxUtterances);
+        sweep(now);
+        events.publishEvent(new TranscriptFinalizedEvent(channel, utterance, now));
+    }
+
+    /** True if the store holds anything for {@code channel}, even if it was cleared. */
+    public boolean contains(String channel) {
+        return channel != null && transcripts.containsKey(channel);
+    }
+
+    /**
+     * Fills an unknown {@code channel} with utterances stored earlier, oldest
+     * first, without announcing them again. Does nothing and returns false if
+     * the channel is already known.
+     */
+    public boolean restore(String channel, List<Utterance> utterances) {
+        if (channel == null || utterances.isEmpty()) {
+            return false;
+        }
+        SessionTranscript restored = new SessionTranscript();
+        for (Utterance utterance : utterances) {
+            restored.append(utterance, maxUtterances);
+        }
+        return transcripts.putIfAbsent(channel, restored) == null;
+    }
+
+    public void setSetup(String channel, InterviewSetup setup) {
+        if (channel != null) {
+            transcripts.computeIfAbsent(channel, k -> new SessionTranscript()).setup = setup;
+        }
+    }
+
+    /** The setup last chosen on {@code channel}, or null. */
+    public InterviewSetup setup(String channel) {
+        SessionTranscript transcript = channel == null ? null : transcripts.get(channel);
+        return transcript == null ? null : transcript.setup;
+    }
+
+    /**
+     * The newest utterances of {@code channel}, oldest first, that together
+     * stay within {@code tokenBudget} and {@code maxCount}. The newest one is
+     * always included.
+     */
+    public List<Utterance> window(String channel, int tokenBudget, int maxCount) {
+        SessionTranscript transcript = channel == null ? null : transcripts.get(channel);
+        return transcript == null ? List.of() : transcript.window(tokenBudget, maxCount);
+    }
+
+    /** Forgets the utterances of {@code channel}, stored ones included; its setup is kept. */
+    public void clear(String channel) {
+        if (channel == null) {
+            return;
+        }
+        SessionTranscript transcript = transcripts.get(channel);
+        if (transcript != null) {
+            transcript.clear();
+        }
+        events.publishEvent(new TranscriptClearedEvent(channel));
+    }
+
+    private void sweep(long now) {
+        if (now - lastSweepMillis < 60_000) {
+            return;
+        }
+        lastSweepMillis = now;
+        evictIdle(now);
+    }
+
+    /** Drops the channels that have been quiet for longer than the idle TTL at {@code now}. */
+    void evictIdle(long now) {
+        transcripts.values().removeIf(t -> now - t.lastAppendMillis > idleTtlMillis);
+    }
+
+    private static final class SessionTranscript {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<Utterance> utterances = new ArrayDeque<>();
+        private volatile long lastAppendMillis = System.currentTimeMillis();
+        private volatile InterviewSetup setup;
+
+        void append(Utterance utterance, int maxUtterances) {
+            lock.lock();
+            try {
+                if (utterances.size() == maxUtterances) {
+                    utterances.removeFirst();
+                }
+                utterances.addLast(utterance);
+                lastAppendMillis = utterance.timestampMillis();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                utterances.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<Utterance> window(int tokenBudget, int maxCount) {
+            lock.lock();
+            try {
+                List<Utterance> newestFirst = new ArrayList<>();
+                int tokens = 0;
+                Iterator<Utterance> it = utterances.descendingIterator();
+                while (it.hasNext() && newestFirst.size() < maxCount) {
+                    Utterance utterance = it.next();
+                    if (!newestFirst.isEmpty() && tokens + utterance.tokens() > tokenBudget) {
+                        break;
+                    }
+                    tokens += utterance.tokens();
+                    newestFirst.add(utterance);
+                }
+                return newestFirst.reversed();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
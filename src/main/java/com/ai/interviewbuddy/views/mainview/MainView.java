@@ -1,6 +1,12 @@
 package com.ai.interviewbuddy.views.mainview;
 
+import com.ai.interviewbuddy.service.AssistantService;
+import com.ai.interviewbuddy.service.InterviewSetup;
+import com.ai.interviewbuddy.service.PromptBuilder;
 import com.ai.interviewbuddy.service.PushService;
+import com.ai.interviewbuddy.service.SpeculativeAnswerService;
+import com.ai.interviewbuddy.service.TranscriptPersister;
+import com.ai.interviewbuddy.service.TranscriptStore;
 import com.vaadin.flow.component.ClientCallable;
 import com.vaadin.flow.component.Text;
 import com.vaadin.flow.component.button.Button;
@@ -13,30 +19,40 @@ import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
-import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.component.shared.Tooltip;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 // import com.vaadin.flow.component.tooltip.Tooltip;
 
-import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 
 @Route("")
-@Push
 @JsModule("./js/mic-stream.js")
 @CssImport("./themes/interviewbuddy/interviewbuddy.css")
 public class MainView extends VerticalLayout {
 
-    private final ChatClient chatClient;
+    private final AssistantService assistantService;
     private final PushService pushService;
+    private final PromptBuilder promptBuilder;
+    private final SpeculativeAnswerService speculativeAnswers;
+    private final TranscriptStore transcriptStore;
+    private final String transcriptChannel;
 
     private final Div transcriptDisplay = new Div();
     private final Div aiResponseDisplay = new Div();
 
-    private String lastTranscribedText = "";
+    private Disposable pendingAnswer;
+    /**
+     * Bumped whenever an answer is started or cancelled. Frames a disposed
+     * subscription already queued with {@code ui.access} carry an older value
+     * and are skipped, so they never land in the next answer's panel.
+     */
+    private int answerGeneration;
 
     private final ComboBox<String> interviewType = new ComboBox<>("Interview Type");
     private final ComboBox<String> roleType = new ComboBox<>("Target Role");
@@ -58,12 +74,17 @@ public class MainView extends VerticalLayout {
 
 
     @Autowired
-    public MainView(ChatClient chatClient, PushService pushService) {
-        this.chatClient = chatClient;
+    public MainView(AssistantService assistantService, PushService pushService, PromptBuilder promptBuilder,
+            TranscriptStore transcriptStore, TranscriptPersister transcriptPersister,
+            SpeculativeAnswerService speculativeAnswers) {
+        this.assistantService = assistantService;
         this.pushService = pushService;
+        this.promptBuilder = promptBuilder;
+        this.transcriptStore = transcriptStore;
+        this.speculativeAnswers = speculativeAnswers;
 
-        // Register this UI so PushService can update it
-        pushService.register(UI.getCurrent());
+        // Register this UI so PushService can route this session's transcripts to it
+        this.transcriptChannel = pushService.register(UI.getCurrent());
 
         interviewType.setItems("Coding", "System Design", "Behavioral", "Case Study");
         roleType.setItems("Backend Engineer", "Frontend Engineer", "Product Manager", "QA", "ML Engineer");
@@ -90,12 +111,28 @@ public class MainView extends VerticalLayout {
         aiResponseDisplay.setId("ai-response");
 
         transcriptDisplay.setClassName("chat-box");
+        // A reload keeps the session's channel, so show what it already transcribed. What only the
+        // database still has is loaded in the background and shown once it is there.
+        showHistory();
+        UI ui = UI.getCurrent();
+        transcriptPersister.restore(transcriptChannel).thenAccept(restored -> {
+            if (restored) {
+                try {
+                    ui.access(this::showHistory);
+                } catch (UIDetachedException e) {
+                    // The page was closed meanwhile.
+                }
+            }
+        });
         aiResponseDisplay.setClassName("ai-box");
 
-        micStart.addClickListener(e -> UI.getCurrent().getPage().executeJs("window.micStreamer.start();"));
+        micStart.addClickListener(
+                e -> UI.getCurrent().getPage().executeJs("window.micStreamer.start($0);", transcriptChannel));
         micStop.addClickListener(e -> UI.getCurrent().getPage().executeJs("window.micStreamer.stop();"));
 
         clear.addClickListener(e -> showConfirm("Clear All?", () -> {
+            cancelAnswer();
+            transcriptStore.clear(transcriptChannel);
             transcriptDisplay.setText("");
             aiResponseDisplay.setText("");
         }));
@@ -116,28 +153,15 @@ public class MainView extends VerticalLayout {
                 .set("margin-top", "8px");
 
         helpBtn.addClickListener(e -> {
-            if (isSetupComplete() && !lastTranscribedText.isBlank()) {
-                String prompt = """
-                            You're helping someone in a %s interview for a %s role.
-                            Response Style: %s
-                            Preferred Framework: %s
-                            Tone: %s
-                            Format: Please answer in the form of a %s.
-
-                            User just said:
-                            %s
-                        """.formatted(
-                        interviewType.getValue(),
-                        roleType.getValue(),
-                        responseStyle.getValue(),
-                        responseFramework.getValue(),
-                        toneSelector.getValue(),
-                        responseFormat.getValue(),
-                        lastTranscribedText);
-
-                String ai = chatClient.prompt().user(prompt).call().content();
-                aiResponseDisplay.setText("🤖 " + ai);
+            if (!isSetupComplete()) {
+                return;
             }
+            PromptBuilder.InterviewPrompt prompt = promptBuilder.build(currentSetup(), transcriptChannel);
+            if (prompt == null) {
+                Notification.show("Nothing has been transcribed yet", 3000, Notification.Position.TOP_CENTER);
+                return;
+            }
+            showAnswer(prompt);
         });
 
         Button darkModeToggle = new Button("🌙 Toggle Dark Mode", e -> UI.getCurrent().getPage().executeJs("""
@@ -173,9 +197,84 @@ public class MainView extends VerticalLayout {
                     ]).then(v => $0.$server.restoreSetup(...v));
                 """, getElement());
 
+        addDetachListener(e -> cancelAnswer());
+
         validateSetup();
     }
 
+    /**
+     * Streams the answer into the AI panel. Each frame is appended as its own
+     * text node so a push only carries the new text; the panel is collapsed
+     * to a single node once the answer is complete.
+     */
+    private void showAnswer(PromptBuilder.InterviewPrompt prompt) {
+        UI ui = UI.getCurrent();
+        cancelAnswer();
+        int generation = answerGeneration;
+        StringBuilder answer = new StringBuilder();
+        helpBtn.setEnabled(false);
+        aiResponseDisplay.setText("🤖 ");
+        // Join the answer already being generated for this question, if there is one.
+        Flux<String> frames = speculativeAnswers.join(transcriptChannel, prompt);
+        if (frames == null) {
+            frames = assistantService.answer(prompt);
+        }
+        pendingAnswer = frames.subscribe(
+                frame -> ui.access(() -> {
+                    if (generation != answerGeneration) {
+                        return;
+                    }
+                    answer.append(frame);
+                    aiResponseDisplay.add(new Text(frame));
+                }),
+                error -> ui.access(() -> {
+                    if (generation != answerGeneration) {
+                        return;
+                    }
+                    aiResponseDisplay.add(new Text(answer.isEmpty() ? "⚠️ AI request failed" : " ⚠️ (interrupted)"));
+                    helpBtn.setEnabled(isSetupComplete());
+                }),
+                () -> ui.access(() -> {
+                    if (generation != answerGeneration) {
+                        return;
+                    }
+                    aiResponseDisplay.setText("🤖 " + answer);
+                    helpBtn.setEnabled(isSetupComplete());
+                }));
+    }
+
+    /**
+     * Stops the answer being streamed, if any. A disposed subscription never
+     * completes, so the Help button is re-enabled here rather than by it.
+     */
+    private void cancelAnswer() {
+        answerGeneration++;
+        if (pendingAnswer != null) {
+            pendingAnswer.dispose();
+            pendingAnswer = null;
+        }
+        helpBtn.setEnabled(isSetupComplete());
+    }
+
+    private void showHistory() {
+        StringBuilder history = new StringBuilder();
+        for (TranscriptStore.Utterance utterance : transcriptStore.window(transcriptChannel, Integer.MAX_VALUE,
+                Integer.MAX_VALUE)) {
+            history.append("\n📡 ").append(utterance.text());
+        }
+        transcriptDisplay.setText(history.toString());
+    }
+
+    private InterviewSetup currentSetup() {
+        return new InterviewSetup(
+                interviewType.getValue(),
+                roleType.getValue(),
+                responseStyle.getValue(),
+                responseFramework.getValue(),
+                toneSelector.getValue(),
+                responseFormat.getValue());
+    }
+
     private boolean isSetupComplete() {
         return interviewType.getValue() != null &&
                 roleType.getValue() != null &&
@@ -193,6 +292,11 @@ public class MainView extends VerticalLayout {
         clear.setEnabled(ready);
         resetSetupBtn.setEnabled(true);
 
+        if (ready) {
+            // Lets answers be prepared from the audio side with this setup.
+            transcriptStore.setSetup(transcriptChannel, currentSetup());
+        }
+
         if (ready && setupSection.isOpened()) {
             setupSection.setOpened(false);
             Notification.show("🎉 Setup complete!", 3000, Notification.Position.TOP_CENTER);
@@ -0,0 +1,238 @@
+package com.ai.interviewbuddy.ws;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Node-level admission control for ASR sessions.
+ *
+ * Every ASR session holds a slot from the moment it is created until it is
+ * closed. A session has at most one recognize stream open (two for a moment
+ * during a rollover), so the number of slots bounds the streams of this node.
+ * When all slots are taken, a new connection waits for one, first come first
+ * served, for up to the queue timeout; at most max-queued connections wait at
+ * once. Waiting does not hold a thread: the request is parked and completed
+ * from the admission thread when a slot is released or the timeout passes,
+ * so container threads are never blocked, with or without virtual threads. A
+ * connection that gets no slot is turned away so the client can try again
+ * later, instead of starting a stream the engine may refuse. A maximum of 0
+ * admits everyone and only counts the slots in use.
+ */
+@Component
+public class AsrAdmission {
+
+    private static final Timer WAIT = Timer.builder("interviewbuddy.asr.admission.wait")
+            .description("Time connections waited for a free ASR slot")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(Metrics.globalRegistry);
+
+    private static final Counter IMMEDIATE = counter("immediate");
+    private static final Counter AFTER_WAIT = counter("queued");
+    private static final Counter REJECTED = counter("rejected");
+
+    private static Counter counter(String result) {
+        return Counter.builder("interviewbuddy.asr.admissions")
+                .description("Audio connections by how they were admitted, or rejected for lack of ASR slots")
+                .tag("result", result)
+                .register(Metrics.globalRegistry);
+    }
+
+    private final int maxStreams;
+    private final int maxQueued;
+    private final long queueTimeoutMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Slots neither held nor handed to a waiting request; unused when not limited. */
+    private int free;
+    private final ArrayDeque<Ticket> waiting = new ArrayDeque<>();
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    /** Completes parked requests and expires them after the queue timeout. */
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("asr-admission").daemon().factory());
+
+    public AsrAdmission(@Value("${interviewbuddy.asr.admission.max-streams:200}") int maxStreams,
+            @Value("${interviewbuddy.asr.admission.max-queued:50}") int maxQueued,
+            @Value("${interviewbuddy.asr.admission.queue-timeout-ms:5000}") long queueTimeoutMillis) {
+        this.maxStreams = Math.max(0, maxStreams);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.queueTimeoutMillis = Math.max(0, queueTimeoutMillis);
+        this.free = this.maxStreams;
+        Gauge.builder("interviewbuddy.asr.slots.used", used, AtomicInteger::get)
+                .description("ASR slots held by sessions on this node")
+                .register(Metrics.globalRegistry);
+        Gauge.builder("interviewbuddy.asr.slots.max", () -> this.maxStreams)
+                .description("ASR slots on this node, 0 if unlimited")
+                .register(Metrics.globalRegistry);
+        Gauge.builder("interviewbuddy.asr.admission.queued", queued, AtomicInteger::get)
+                .description("Connections waiting for a free ASR slot")
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Requests a slot. {@code admitted} is called exactly once, with the
+     * permit or with null if the connection is not admitted: right away on
+     * the calling thread if the request can be decided at once, otherwise
+     * later on the admission thread, so it must not block for long. Returns
+     * the ticket of a parked request, which the caller cancels if it no longer
+     * needs the slot, or null if {@code admitted} has already been called.
+     */
+    Ticket acquire(Consumer<Permit> admitted) {
+        boolean admit;
+        lock.lock();
+        try {
+            if (maxStreams == 0 || free > 0) {
+                if (maxStreams > 0) {
+                    free--;
+                }
+                admit = true;
+            } else if (queueTimeoutMillis == 0 || waiting.size() >= maxQueued) {
+                admit = false;
+            } else {
+                Ticket ticket = new Ticket(admitted);
+                waiting.addLast(ticket);
+                queued.set(waiting.size());
+                ticket.timeout = dispatcher.schedule(() -> expire(ticket), queueTimeoutMillis,
+                        TimeUnit.MILLISECONDS);
+                return ticket;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (admit) {
+            IMMEDIATE.increment();
+            admitted.accept(new Permit());
+        } else {
+            REJECTED.increment();
+            admitted.accept(null);
+        }
+        return null;
+    }
+
+    /** Takes a slot only if one is free right now. */
+    Permit tryAcquire() {
+        lock.lock();
+        try {
+            if (maxStreams > 0) {
+                if (free == 0) {
+                    REJECTED.increment();
+                    return null;
+                }
+                free--;
+            }
+        } finally {
+            lock.unlock();
+        }
+        IMMEDIATE.increment();
+        return new Permit();
+    }
+
+    private void expire(Ticket ticket) {
+        if (remove(ticket)) {
+            WAIT.record(System.nanoTime() - ticket.parkedNanos, TimeUnit.NANOSECONDS);
+            REJECTED.increment();
+            ticket.admitted.accept(null);
+        }
+    }
+
+    private boolean remove(Ticket ticket) {
+        lock.lock();
+        try {
+            boolean removed = waiting.remove(ticket);
+            queued.set(waiting.size());
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Hands a released slot to the longest waiting request, or frees it. */
+    private void release() {
+        Ticket next;
+        lock.lock();
+        try {
+            next = waiting.pollFirst();
+            if (next == null) {
+                free++;
+                return;
+            }
+            queued.set(waiting.size());
+        } finally {
+            lock.unlock();
+        }
+        next.timeout.cancel(false);
+        try {
+            dispatcher.execute(next::grant);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the request is still answered.
+            next.grant();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    int used() {
+        return used.get();
+    }
+
+    /** A parked request for a slot. */
+    final class Ticket {
+        private final Consumer<Permit> admitted;
+        private final long parkedNanos = System.nanoTime();
+        private ScheduledFuture<?> timeout;
+
+        private Ticket(Consumer<Permit> admitted) {
+            this.admitted = admitted;
+        }
+
+        /** Withdraws the request if it is still waiting; {@code admitted} is then never called. */
+        void cancel() {
+            if (remove(this)) {
+                timeout.cancel(false);
+            }
+        }
+
+        private void grant() {
+            WAIT.record(System.nanoTime() - parkedNanos, TimeUnit.NANOSECONDS);
+            AFTER_WAIT.increment();
+            admitted.accept(new Permit());
+        }
+    }
+
+    /** One slot; closing it more than once releases it once. */
+    final class Permit implements AutoCloseable {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+            used.incrementAndGet();
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                used.decrementAndGet();
+                if (maxStreams > 0) {
+                    release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,638 @@
+package com.ai.interviewbuddy.ws;
+
+import com.ai.interviewbuddy.asr.AudioEncoding;
+import com.ai.interviewbuddy.asr.RecognitionListener;
+import com.ai.interviewbuddy.asr.RecognitionRequest;
+import com.ai.interviewbuddy.asr.RecognitionStream;
+import com.ai.interviewbuddy.asr.SpeechRecognizer;
+import com.ai.interviewbuddy.cluster.TranscriptBus;
+import com.ai.interviewbuddy.service.RateLimitedLog;
+import com.google.protobuf.ByteString;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ASR state for a single WebSocket connection.
+ *
+ * Each connection owns its own gRPC stream and readiness flags, so audio from
+ * one interviewee never reaches another's stream and an error or disconnect
+ * only tears down the session it belongs to.
+ *
+ * The WebSocket thread only ingests and enqueues audio. A dedicated sender
+ * thread opens the recognize stream and drains the queue, so a slow or
+ * starting gRPC stream never blocks the container, and audio that arrives
+ * before the stream is ready is replayed once it is.
+ *
+ * Engines such as Google end a streaming recognize call after about five
+ * minutes, so for those the sender rolls streams over before that: once a
+ * stream reaches the rollover age its successor is opened, and the switch
+ * happens at the next final result (or after a short wait). The most recent
+ * audio is replayed into the new stream and the repeated words are removed
+ * from its first result. Engines without that limit keep no recent audio.
+ *
+ * PCM audio passes a voice activity gate first, so silence is not sent at
+ * all; after a longer silence the stream is closed and a fresh one is opened
+ * when speech resumes.
+ */
+class AsrSession {
+    private static final Logger log = LoggerFactory.getLogger(AsrSession.class);
+    /** Stream failures come in bursts across all sessions when the engine is unavailable. */
+    private static final RateLimitedLog streamFailureLog = new RateLimitedLog(log, Duration.ofSeconds(10));
+
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 5000;
+    /** How long a closing session keeps sending the audio still queued before it gives up on it. */
+    private static final long DRAIN_TIMEOUT_MILLIS = 2000;
+
+    /**
+     * Time from the arrival of the newest audio sent to the recognizer until a
+     * final result is delivered, i.e. how far transcripts lag behind speech.
+     */
+    private static final Timer TRANSCRIPT_LATENCY = Timer.builder("interviewbuddy.asr.transcript.latency")
+            .description("Delay between the latest audio sent and a final transcript")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(Metrics.globalRegistry);
+
+    /*
+     * Per utterance, measured from the first audio of the utterance sent to the
+     * recognizer. With voice activity gating that is the speech onset; without
+     * it, the first chunk after the previous final.
+     */
+    private static final Timer FIRST_PARTIAL = Timer.builder("interviewbuddy.asr.utterance.first.partial")
+            .description("Time from the start of an utterance to its first interim result")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(Metrics.globalRegistry);
+    private static final Timer UTTERANCE_FINAL = Timer.builder("interviewbuddy.asr.utterance.final")
+            .description("Time from the start of an utterance to its final result")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(Metrics.globalRegistry);
+
+    private static final Counter ROLLOVERS = restarts("rollover");
+    private static final Counter RECOVERIES = restarts("recovery");
+    private static final Counter OPEN_FAILURES = Counter.builder("interviewbuddy.asr.stream.open.failures")
+            .description("Recognize streams that could not be opened")
+            .register(Metrics.globalRegistry);
+
+    private static Counter restarts(String reason) {
+        return Counter.builder("interviewbuddy.asr.stream.restarts")
+                .description("Recognize streams replaced while a session was live")
+                .tag("reason", reason)
+                .register(Metrics.globalRegistry);
+    }
+
+    private final String id;
+    private final String channel;
+    private final SpeechRecognizer recognizer;
+    private final TranscriptBus transcriptBus;
+    private final AudioIngestSettings audioSettings;
+    private final RolloverSettings rolloverSettings;
+    private final VadSettings vadSettings;
+    private final AudioSendQueue queue;
+    private final Thread sender;
+    /** Guards stream start/stop; a lock rather than synchronized so a virtual sender never pins. */
+    private final ReentrantLock streamLock = new ReentrantLock();
+    /**
+     * Signalled when the current stream may have become ready, or stopped
+     * being current, so the sender waits out engine flow control without polling.
+     */
+    private final Condition streamChanged = streamLock.newCondition();
+    private final TranscriptDeduplicator deduplicator = new TranscriptDeduplicator();
+    private final RecentAudio recentAudio;
+    /** Receives every payload as the client sent it, when recording is on; otherwise null. */
+    private final SessionRecording recording;
+    /** This session's admission slot, released when it closes. */
+    private final AsrAdmission.Permit permit;
+
+    /*
+     * Only used by the WebSocket thread of the connection currently feeding the
+     * session; a resumed connection takes over through the handler's maps.
+     */
+    private AudioIngest ingest;
+    private AudioIngest.Sink sink;
+    private VoiceActivityGate gate;
+    private boolean described;
+    /** Set when the stream was closed for silence, so its successor starts without replayed audio. */
+    private volatile boolean freshStart;
+    private volatile long lastSpeechEndNanos;
+    /** When audio last arrived from a client, or the session was created or resumed. */
+    private volatile long lastAudioNanos = System.nanoTime();
+    /** Arrival time of the newest audio handed to the recognizer, for transcript latency. */
+    private volatile long lastSentEnqueuedNanos;
+    /** When the first audio of the current utterance was sent, or 0 between utterances. */
+    private volatile long utteranceStartNanos;
+    private volatile boolean utterancePartialSeen;
+    /** Set by {@link #close()}: no more audio is accepted, what is queued is still sent. */
+    private volatile boolean closing;
+    /** When a closing session stops sending queued audio; only read once {@link #closing} is set. */
+    private volatile long drainDeadlineNanos;
+    /** Set when the sender has stopped, or by {@link #abort()}; nothing is sent after this. */
+    private volatile boolean closed = false;
+    private volatile StreamObserver stream;
+    /** Successor opened ahead of a rollover; only touched by the sender thread. */
+    private StreamObserver nextStream;
+    private int generation;
+    private volatile int rollovers;
+
+    AsrSession(String id, String channel, SpeechRecognizer recognizer, TranscriptBus transcriptBus,
+            AudioIngestSettings audioSettings, SendQueueSettings queueSettings,
+            RolloverSettings rolloverSettings, VadSettings vadSettings, SessionRecording recording,
+            AsrAdmission.Permit permit, ThreadFactory senderThreads) {
+        this.id = id;
+        this.channel = channel;
+        this.recognizer = recognizer;
+        this.transcriptBus = transcriptBus;
+        this.audioSettings = audioSettings;
+        this.rolloverSettings = rolloverSettings;
+        this.vadSettings = vadSettings;
+        this.recording = recording;
+        this.permit = permit;
+        // Without a duration limit nothing rolls over, so copying every chunk would be wasted.
+        this.recentAudio = new RecentAudio(recognizer.limitsStreamDuration()
+                ? rolloverSettings.overlapMillis() : 0);
+        this.queue = new AudioSendQueue(queueSettings.capacity(), queueSettings.policy(),
+                queueSettings.blockTimeoutMillis());
+        this.sender = senderThreads.newThread(this::drain);
+        this.sender.setName("asr-sender-" + id);
+        this.sender.start();
+    }
+
+    String id() {
+        return id;
+    }
+
+    AudioSendQueue.Stats queueStats() {
+        return queue.stats();
+    }
+
+    int rollovers() {
+        return rollovers;
+    }
+
+    /**
+     * Sequence number of the next framed PCM frame the session needs, 0 if
+     * it has none yet; a reconnecting client replays its buffer from here.
+     */
+    long resumeSequence() {
+        return ingest instanceof FramedPcm16Ingest framed ? Math.max(0, framed.expectedSequence()) : 0;
+    }
+
+    /** How long no audio has arrived. */
+    long idleNanos() {
+        return System.nanoTime() - lastAudioNanos;
+    }
+
+    /** Restarts the idle time, for a client that reconnected. */
+    void touch() {
+        lastAudioNanos = System.nanoTime();
+    }
+
+    /** Called on the WebSocket thread for every binary frame. */
+    void accept(ByteBuffer payload) {
+        if (closing) {
+            return;
+        }
+        lastAudioNanos = System.nanoTime();
+        SessionRecorder.record(recording, payload);
+        if (ingest == null) {
+            AudioIngest detected = AudioIngest.create(payload, audioSettings);
+            if (!recognizer.supports(detected.encoding())) {
+                throw new IllegalStateException(
+                        recognizer.name() + " recognizer cannot decode " + detected.encoding() + " audio");
+            }
+            ingest = detected;
+            sink = this::enqueue;
+            if (vadSettings.enabled() && detected.encoding() == AudioEncoding.LINEAR16) {
+                gate = new VoiceActivityGate(detected.sampleRateHertz(), vadSettings, sink, new SpeechBoundaries());
+                sink = gate;
+            }
+        }
+        ingest.accept(payload, sink);
+        if (!described && ingest.isReady()) {
+            // A WebM track entry is only known once its header has been parsed.
+            described = true;
+            log.info("[{}] Audio input: {}", id, ingest.describe());
+        }
+    }
+
+    /** Utterance boundaries from the voice activity gate; called on the WebSocket thread. */
+    private class SpeechBoundaries implements VoiceActivityGate.Listener {
+        @Override
+        public void onSpeechStart() {
+            log.debug("[{}] Speech started", id);
+        }
+
+        @Override
+        public void onSpeechEnd(long speechMillis) {
+            lastSpeechEndNanos = System.nanoTime();
+            log.debug("[{}] Speech ended after {} ms", id, speechMillis);
+        }
+
+        @Override
+        public void onIdle() {
+            StreamObserver current = stream;
+            if (current != null) {
+                log.debug("[{}] Silence for {} ms, closing ASR stream #{}", id, vadSettings.idleCloseMillis(),
+                        current.generation);
+                freshStart = true;
+                // Noise that never produced a final should not count towards the next utterance.
+                utteranceStartNanos = 0;
+                utterancePartialSeen = false;
+                shutdownAsr(current);
+            }
+        }
+    }
+
+    private void enqueue(ByteString audio, long durationMillis) {
+        try {
+            if (!queue.offer(audio, durationMillis) && log.isDebugEnabled()) {
+                log.debug("[{}] Send queue full, dropped {} ms of audio", id, durationMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sender loop: opens the stream on first audio and forwards queued chunks
+     * in order. Once the session is closing it sends what is left, then
+     * half-closes the stream and gives up the admission slot.
+     */
+    private void drain() {
+        long backoff = 250;
+        try {
+            while (!closed) {
+                ByteString chunk = queue.awaitHead();
+                if (chunk == null) {
+                    break;
+                }
+                if (drainExpired()) {
+                    log.debug("[{}] Closing with {} chunks unsent", id, queue.stats().depth());
+                    break;
+                }
+                if (stream == null && !startStream()) {
+                    if (closing) {
+                        break;
+                    }
+                    // Keep the chunk queued and retry; the overflow policy bounds what piles up.
+                    Thread.sleep(backoff);
+                    backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF_MILLIS);
+                    continue;
+                }
+                backoff = 250;
+                maybeRollOver();
+                StreamObserver current = stream;
+                if (current == null) {
+                    continue;
+                }
+                // Engine flow control: let the queue absorb the backlog instead of the channel.
+                awaitReady(current);
+                try {
+                    long millis = queue.headMillis();
+                    lastSentEnqueuedNanos = queue.headEnqueuedNanos();
+                    if (utteranceStartNanos == 0) {
+                        utteranceStartNanos = System.nanoTime();
+                    }
+                    current.recognition.send(chunk, millis);
+                    recentAudio.add(chunk, millis);
+                    queue.release();
+                } catch (RuntimeException e) {
+                    // Keep the chunk; the next iteration opens a new stream and resends it.
+                    streamFailureLog.warn("[{}] Sending to ASR stream failed, restarting it", id, e);
+                    shutdownAsr(current);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closed = true;
+            if (nextStream != null) {
+                halfClose(nextStream);
+            }
+            shutdownAsr(stream);
+            permit.close();
+            logSummary();
+        }
+    }
+
+    /** Waits until {@code current} accepts audio, stops being the session's stream, or closing cuts it short. */
+    private void awaitReady(StreamObserver current) throws InterruptedException {
+        streamLock.lock();
+        try {
+            while (!current.recognition.isReady() && !closed && stream == current && !drainExpired()) {
+                if (closing) {
+                    streamChanged.awaitNanos(drainDeadlineNanos - System.nanoTime());
+                } else {
+                    streamChanged.await();
+                }
+            }
+        } finally {
+            streamLock.unlock();
+        }
+    }
+
+    private void signalStreamChanged() {
+        streamLock.lock();
+        try {
+            streamChanged.signalAll();
+        } finally {
+            streamLock.unlock();
+        }
+    }
+
+    private boolean drainExpired() {
+        return closing && System.nanoTime() - drainDeadlineNanos > 0;
+    }
+
+    /**
+     * Opens the session's stream. After the first one, a restarted stream
+     * also gets the recent audio so nothing is lost across the gap.
+     */
+    private boolean startStream() {
+        boolean restart = generation > 0;
+        if (freshStart) {
+            // The last stream was closed for silence; there is nothing recent worth replaying.
+            freshStart = false;
+            restart = false;
+            recentAudio.clear();
+        }
+        StreamObserver opened = nextStream != null && !nextStream.ended ? nextStream : openStream();
+        nextStream = null;
+        if (opened == null) {
+            return false;
+        }
+        if (restart) {
+            RECOVERIES.increment();
+            replayRecentAudio(opened);
+        }
+        stream = opened;
+        return true;
+    }
+
+    private void maybeRollOver() {
+        StreamObserver current = stream;
+        if (current == null || !recognizer.limitsStreamDuration()) {
+            return;
+        }
+        long rolloverAfter = rolloverSettings.rolloverAfterMillis();
+        long age = current.ageMillis();
+        if (age < rolloverAfter) {
+            return;
+        }
+        if (nextStream != null && nextStream.ended) {
+            nextStream = null;
+        }
+        if (nextStream == null) {
+            // Open the successor early so the switch itself costs nothing.
+            nextStream = openStream();
+            if (nextStream == null) {
+                return;
+            }
+        }
+        long lastBoundaryNanos = Math.max(current.lastFinalNanos, lastSpeechEndNanos);
+        boolean atBoundary = lastBoundaryNanos - current.startNanos > TimeUnit.MILLISECONDS
+                .toNanos(rolloverAfter);
+        if (!atBoundary && age < rolloverAfter + rolloverSettings.boundaryWaitMillis()) {
+            return;
+        }
+        StreamObserver successor = nextStream;
+        nextStream = null;
+        replayRecentAudio(successor);
+        streamLock.lock();
+        try {
+            stream = successor;
+        } finally {
+            streamLock.unlock();
+        }
+        rollovers++;
+        ROLLOVERS.increment();
+        log.info("[{}] ASR stream rolled over after {} s ({}, rollover #{})", id, age / 1000,
+                atBoundary ? "at utterance boundary" : "boundary wait expired", rollovers);
+        // Results for audio already sent still arrive on the old stream's observer.
+        halfClose(current);
+    }
+
+    private void replayRecentAudio(StreamObserver target) {
+        deduplicator.expectOverlap(target.generation);
+        recentAudio.replay(target.recognition);
+    }
+
+    private StreamObserver openStream() {
+        streamLock.lock();
+        try {
+            if (closed) {
+                return null;
+            }
+            log.debug("[{}] Starting {} ASR stream...", id, recognizer.name());
+            StreamObserver observer = new StreamObserver(++generation);
+            observer.recognition = recognizer.open(
+                    new RecognitionRequest(ingest.encoding(), ingest.sampleRateHertz(), audioSettings.languageCode()),
+                    observer);
+            observer.recognition.setOnReadyHandler(this::signalStreamChanged);
+            ByteString preamble = ingest.streamPreamble();
+            if (!preamble.isEmpty()) {
+                observer.recognition.send(preamble, 0);
+            }
+            log.debug("[{}] {} ASR stream #{} initialized successfully", id, recognizer.name(), observer.generation);
+            return observer;
+        } catch (Exception e) {
+            OPEN_FAILURES.increment();
+            streamFailureLog.error("[{}] Failed to start ASR stream", id, e);
+            return null;
+        } finally {
+            streamLock.unlock();
+        }
+    }
+
+    /**
+     * One recognize call. Bound to its own stream, so a late error or
+     * completion of an old stream cannot stop its successor.
+     */
+    private class StreamObserver implements RecognitionListener {
+        final int generation;
+        final long startNanos = System.nanoTime();
+        volatile RecognitionStream recognition;
+        volatile long lastFinalNanos;
+        volatile boolean ended;
+        /** Last hypothesis forwarded, so unchanged partials are not pushed again. */
+        private String lastPartial = "";
+
+        StreamObserver(int generation) {
+            this.generation = generation;
+        }
+
+        long ageMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+
+        @Override
+        public void onPartial(String hypothesis) {
+            if (!hypothesis.equals(lastPartial)) {
+                lastPartial = hypothesis;
+                long start = utteranceStartNanos;
+                if (start != 0 && !utterancePartialSeen) {
+                    utterancePartialSeen = true;
+                    FIRST_PARTIAL.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                log.debug("[{}] Transcription result (PARTIAL) : {}", id, hypothesis);
+                transcriptBus.publishPartial(channel, hypothesis);
+            }
+        }
+
+        @Override
+        public void onFinal(String transcript) {
+            lastFinalNanos = System.nanoTime();
+            long sentNanos = lastSentEnqueuedNanos;
+            if (sentNanos != 0) {
+                TRANSCRIPT_LATENCY.record(lastFinalNanos - sentNanos, TimeUnit.NANOSECONDS);
+            }
+            long start = utteranceStartNanos;
+            if (start != 0) {
+                UTTERANCE_FINAL.record(lastFinalNanos - start, TimeUnit.NANOSECONDS);
+            }
+            utteranceStartNanos = 0;
+            utterancePartialSeen = false;
+            lastPartial = "";
+            if (!transcript.isBlank()) {
+                log.debug("[{}] Transcription result (FINAL) : {}", id, transcript);
+            }
+            String fresh = deduplicator.accept(generation, transcript);
+            if (!fresh.isEmpty()) {
+                transcriptBus.publishFinal(channel, fresh);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            ended = true;
+            streamFailureLog.error("[{}] {} ASR stream #{} error", id, recognizer.name(), generation, t);
+            shutdownAsr(this);
+        }
+
+        @Override
+        public void onComplete() {
+            ended = true;
+            log.debug("[{}] ASR stream #{} completed", id, generation);
+            // The server ended the stream; the sender opens a new one for the next chunk.
+            shutdownAsr(this);
+        }
+    }
+
+    /**
+     * Stops accepting audio. The sender still sends what is queued, for up to
+     * {@link #DRAIN_TIMEOUT_MILLIS}, so the end of the last utterance reaches
+     * the engine; then it half-closes the recognize stream and gives up the
+     * admission slot. The engine stays open for other sessions.
+     */
+    void close() {
+        if (closing) {
+            return;
+        }
+        drainDeadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DRAIN_TIMEOUT_MILLIS);
+        closing = true;
+        queue.close();
+        // A sender held back by flow control now has a deadline to wait for.
+        signalStreamChanged();
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    /** Closes the session without sending the audio still queued, for application shutdown. */
+    void abort() {
+        closing = true;
+        closed = true;
+        queue.close();
+        sender.interrupt();
+        signalStreamChanged();
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    private void logSummary() {
+        AudioSendQueue.Stats stats = queue.stats();
+        log.info("[{}] ASR session closed: {} chunks offered, {} dropped ({} ms), max queue depth {}, {} rollovers",
+                id, stats.offeredChunks(), stats.droppedChunks(), stats.droppedMillis(), stats.maxDepth(),
+                rollovers);
+        if (gate != null) {
+            log.info("[{}] Voice activity: {} ms sent, {} ms of silence suppressed", id, gate.forwardedMillis(),
+                    gate.suppressedMillis());
+        }
+        if (ingest instanceof FramedPcm16Ingest framed && framed.lostFrames() > 0) {
+            log.info("[{}] {} audio frames missing from the client's sequence", id, framed.lostFrames());
+        }
+    }
+
+    /** Half-closes {@code expected} and clears it if it is still the session's current stream. */
+    private void shutdownAsr(StreamObserver expected) {
+        streamLock.lock();
+        try {
+            if (expected == null || stream != expected) {
+                return;
+            }
+            stream = null;
+            streamChanged.signalAll();
+        } finally {
+            streamLock.unlock();
+        }
+        halfClose(expected);
+    }
+
+    private void halfClose(StreamObserver observer) {
+        try {
+            observer.recognition.closeSend();
+        } catch (Exception e) {
+            log.debug("[{}] Error half-closing ASR stream #{}", id, observer.generation, e);
+        }
+    }
+
+    /**
+     * The most recently sent audio, replayed into a new stream. Kept as copies
+     * because the queue's slot buffers are reused; only the sender thread
+     * touches it.
+     */
+    private static final class RecentAudio {
+        private record Chunk(ByteString audio, long millis) {
+        }
+
+        private final long windowMillis;
+        private final ArrayDeque<Chunk> chunks = new ArrayDeque<>();
+        private long millis;
+
+        RecentAudio(long windowMillis) {
+            this.windowMillis = windowMillis;
+        }
+
+        void add(ByteString audio, long durationMillis) {
+            if (windowMillis <= 0) {
+                return;
+            }
+            chunks.addLast(new Chunk(ByteString.copyFrom(audio.asReadOnlyByteBuffer()), durationMillis));
+            millis += durationMillis;
+            while (chunks.size() > 1 && millis - chunks.peekFirst().millis() >= windowMillis) {
+                millis -= chunks.removeFirst().millis();
+            }
+        }
+
+        void clear() {
+            chunks.clear();
+            millis = 0;
+        }
+
+        void replay(RecognitionStream target) {
+            for (Chunk chunk : chunks) {
+                target.send(chunk.audio(), chunk.millis());
+            }
+        }
+    }
+}
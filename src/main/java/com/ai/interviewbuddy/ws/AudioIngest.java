@@ -0,0 +1,64 @@
+package com.ai.interviewbuddy.ws;
+
+import com.ai.interviewbuddy.asr.AudioEncoding;
+import com.google.protobuf.ByteString;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Turns the raw binary frames of one WebSocket connection into audio that can
+ * be sent to the recognizer.
+ *
+ * Implementations are stateful and fed incrementally; a frame may end in the
+ * middle of a container element or sample and is completed by the next one.
+ */
+interface AudioIngest {
+
+    /**
+     * Receives ingested audio. The {@link ByteString} may wrap the
+     * container's frame buffer without copying, so it is only valid until
+     * {@code accept} returns; a sink that hands it to another thread must copy
+     * it first, as {@link AudioSendQueue#offer} does.
+     */
+    @FunctionalInterface
+    interface Sink {
+        void accept(ByteString audio, long durationMillis);
+    }
+
+    /** True once enough input has been seen to know the encoding and sample rate. */
+    boolean isReady();
+
+    AudioEncoding encoding();
+
+    int sampleRateHertz();
+
+    /** Consumes one payload and forwards zero or more chunks of audio to the sink. */
+    void accept(ByteBuffer payload, Sink sink);
+
+    /**
+     * Bytes a freshly opened recognize stream must receive before any audio,
+     * e.g. a container header. Empty for headerless formats.
+     */
+    default ByteString streamPreamble() {
+        return ByteString.EMPTY;
+    }
+
+    String describe();
+
+    /**
+     * Picks the ingest for a connection. Declared formats are taken as given;
+     * otherwise the first payload decides: WebM from MediaRecorder is
+     * recognised by its EBML magic, anything else is treated as raw 16-bit
+     * PCM.
+     */
+    static AudioIngest create(ByteBuffer first, AudioIngestSettings settings) {
+        return switch (settings.format()) {
+            case WEBM -> new WebmOpusIngest();
+            case PCM16 -> new Pcm16Ingest(settings.pcmInputRate(), settings.pcmChannels(), settings.targetRate());
+            case PCM16_FRAMED -> new FramedPcm16Ingest(settings.pcmInputRate(), settings.targetRate());
+            case AUTO -> WebmDemuxer.looksLikeWebm(first)
+                    ? new WebmOpusIngest()
+                    : new Pcm16Ingest(settings.pcmInputRate(), settings.pcmChannels(), settings.targetRate());
+        };
+    }
+}
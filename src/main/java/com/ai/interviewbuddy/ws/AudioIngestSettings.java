@@ -0,0 +1,9 @@
+package com.ai.interviewbuddy.ws;
+
+/**
+ * The format a connection declared, input assumptions for raw PCM clients
+ * and the rate audio is resampled to before it is sent to the recognizer.
+ */
+record AudioIngestSettings(ClientAudioFormat format, int pcmInputRate, int pcmChannels, int targetRate,
+        String languageCode) {
+}
@@ -0,0 +1,253 @@
+package com.ai.interviewbuddy.ws;
+
+import com.ai.interviewbuddy.asr.RecognitionStream;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded ring buffer of audio chunks between the WebSocket thread and the
+ * ASR sender of one session.
+ *
+ * Offered audio is copied into slot buffers that are reused for the lifetime
+ * of the session, so the WebSocket frame can be released as soon as the
+ * handler returns. The consumer peeks at the head, sends it, and only then
+ * releases it, which means audio queued before the recognizer is ready is
+ * replayed rather than lost.
+ *
+ * The only copy on the way to the recognizer is the one into the slot: the
+ * head is handed to {@link RecognitionStream#send} as a {@link ByteString}
+ * that wraps the slot buffer. That is safe because the consumer waits for
+ * {@link RecognitionStream#isReady()} before sending and {@code send} has
+ * serialized or copied the audio by the time it returns (gRPC marshals the
+ * request on the calling thread), so the slot is never overwritten while the
+ * engine still reads it. An engine that queued the ByteString itself would
+ * break this and must copy instead.
+ */
+final class AudioSendQueue {
+
+    enum OverflowPolicy {
+        /** Wait up to the configured timeout for space, then drop the new chunk. */
+        BLOCK,
+        /** Discard the oldest queued chunk to make room. */
+        DROP_OLDEST,
+        /** Append to the newest queued chunk so no audio is lost, up to a size cap. */
+        COALESCE
+    }
+
+    /** Google rejects streaming requests whose audio exceeds ~25 KB. */
+    static final int MAX_COALESCED_BYTES = 24 * 1024;
+
+    private static final Counter DROPPED = Counter.builder("interviewbuddy.audio.queue.dropped")
+            .description("Audio chunks dropped by a full send queue")
+            .baseUnit("chunks")
+            .register(Metrics.globalRegistry);
+
+    private static final class Slot {
+        byte[] data = new byte[0];
+        int length;
+        long millis;
+        /** When the oldest audio in the slot was offered. */
+        long enqueuedNanos;
+    }
+
+    private final Slot[] slots;
+    private final OverflowPolicy policy;
+    private final long blockTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private int head;
+    private int size;
+    private boolean closed;
+
+    private long offeredChunks;
+    private long droppedChunks;
+    private long droppedMillis;
+    private long coalescedChunks;
+    private int maxDepth;
+
+    AudioSendQueue(int capacity, OverflowPolicy policy, long blockTimeoutMillis) {
+        // Two slots minimum, so the head (possibly being sent) is never overwritten.
+        this.slots = new Slot[Math.max(2, capacity)];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot();
+        }
+        this.policy = policy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+    }
+
+    /**
+     * Copies the audio into the queue, applying the overflow policy when it is
+     * full. Returns false if the chunk was dropped.
+     */
+    boolean offer(ByteString audio, long millis) throws InterruptedException {
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            offeredChunks++;
+            if (size == slots.length) {
+                switch (policy) {
+                    case BLOCK -> {
+                        long remaining = blockTimeoutNanos;
+                        while (size == slots.length && remaining > 0 && !closed) {
+                            remaining = notFull.awaitNanos(remaining);
+                        }
+                        if (size == slots.length || closed) {
+                            DROPPED.increment();
+                            droppedChunks++;
+                            droppedMillis += millis;
+                            return false;
+                        }
+                    }
+                    case COALESCE -> {
+                        Slot tail = slots[(head + size - 1) % slots.length];
+                        // The tail is never the head here, so it cannot be in flight.
+                        if (tail.length + audio.size() <= MAX_COALESCED_BYTES) {
+                            append(tail, audio);
+                            tail.millis += millis;
+                            coalescedChunks++;
+                            return true;
+                        }
+                        dropOldest();
+                    }
+                    case DROP_OLDEST -> dropOldest();
+                }
+            }
+            Slot slot = slots[(head + size) % slots.length];
+            slot.length = 0;
+            append(slot, audio);
+            slot.millis = millis;
+            slot.enqueuedNanos = System.nanoTime();
+            size++;
+            maxDepth = Math.max(maxDepth, size);
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for a chunk and returns it without removing it. The returned
+     * {@link ByteString} wraps the slot buffer without copying and stays valid
+     * only until {@link #release()}, after which the slot may be refilled.
+     * Chunks queued before {@link #close()} are still returned; null means
+     * the queue is closed and empty.
+     */
+    ByteString awaitHead() throws InterruptedException {
+        lock.lock();
+        try {
+            while (size == 0 && !closed) {
+                notEmpty.await();
+            }
+            if (size == 0) {
+                return null;
+            }
+            Slot slot = slots[head];
+            return UnsafeByteOperations.unsafeWrap(slot.data, 0, slot.length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long headMillis() {
+        lock.lock();
+        try {
+            return size == 0 ? 0 : slots[head].millis;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** When the head chunk was offered, for latency measurements; 0 if the queue is empty. */
+    long headEnqueuedNanos() {
+        lock.lock();
+        try {
+            return size == 0 ? 0 : slots[head].enqueuedNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Removes the chunk last returned by {@link #awaitHead()}. */
+    void release() {
+        lock.lock();
+        try {
+            if (size > 0) {
+                head = (head + 1) % slots.length;
+                size--;
+                notFull.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Refuses further audio; what is already queued can still be taken. */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(size, maxDepth, offeredChunks, droppedChunks, droppedMillis, coalescedChunks);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    record Stats(int depth, int maxDepth, long offeredChunks, long droppedChunks, long droppedMillis,
+            long coalescedChunks) {
+    }
+
+    /**
+     * Drops the oldest chunk after the head. The head itself may be in flight
+     * in the consumer, so it is left alone.
+     */
+    private void dropOldest() {
+        Slot dropped = slots[(head + 1) % slots.length];
+        DROPPED.increment();
+        droppedChunks++;
+        droppedMillis += dropped.millis;
+        // Shift the later chunks forward by one; the dropped slot ends up free at the tail.
+        for (int i = 1; i < size - 1; i++) {
+            swap((head + 1 + i) % slots.length, (head + i) % slots.length);
+        }
+        size--;
+    }
+
+    private void swap(int a, int b) {
+        Slot tmp = slots[a];
+        slots[a] = slots[b];
+        slots[b] = tmp;
+    }
+
+    private static void append(Slot slot, ByteString audio) {
+        int needed = slot.length + audio.size();
+        if (slot.data.length < needed) {
+            byte[] grown = new byte[Math.max(needed, slot.data.length * 2)];
+            System.arraycopy(slot.data, 0, grown, 0, slot.length);
+            slot.data = grown;
+        }
+        audio.copyTo(slot.data, slot.length);
+        slot.length = needed;
+    }
+}
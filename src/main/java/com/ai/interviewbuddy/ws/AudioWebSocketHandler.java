@@ -1,173 +1,603 @@
 package com.ai.interviewbuddy.ws;
 
-import com.ai.interviewbuddy.service.PushService;
-import com.google.api.gax.rpc.ClientStream;
-import com.google.api.gax.rpc.ResponseObserver;
-import com.google.api.gax.rpc.StreamController;
-import com.google.auth.oauth2.GoogleCredentials;
-import com.google.cloud.speech.v1.*;
-import com.google.protobuf.ByteString;
+import com.ai.interviewbuddy.asr.SpeechRecognizer;
+import com.ai.interviewbuddy.cluster.TranscriptBus;
+import com.ai.interviewbuddy.service.RateLimitedLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
 
-import java.io.InputStream;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Feeds browser audio into one {@link AsrSession} per connection.
+ *
+ * Framed PCM clients may name their capture with {@code ?session=}. If such a
+ * connection drops without a normal close, its ASR session is kept for a
+ * grace period; a connection that arrives with the same id takes it over,
+ * is told which frame the server needs next ({@code {"resume":n}}) and
+ * replays from there. While connected the client is sent {@code {"ack":n}}
+ * periodically so it can discard frames the server already has.
+ *
+ * Each new ASR session needs a slot from {@link AsrAdmission}. A connection
+ * that has to wait for one is told {@code {"queued":true}} and parked without
+ * holding a thread; audio it sends meanwhile is kept and fed to the session
+ * once it is admitted. A connection
+ * that gets no slot is closed with 1013 (try again later). A connection that
+ * sends no audio for the idle timeout, such as a socket that died without a
+ * close, is closed with 4408 and its ASR session is released.
+ */
 @Component
 public class AudioWebSocketHandler extends BinaryWebSocketHandler {
     private static final Logger log = LoggerFactory.getLogger(AudioWebSocketHandler.class);
+    private static final RateLimitedLog orphanLog = new RateLimitedLog(log, Duration.ofSeconds(10));
+    private static final RateLimitedLog failureLog = new RateLimitedLog(log, Duration.ofSeconds(10));
+    /** A load spike rejects many connections at once. */
+    private static final RateLimitedLog rejectLog = new RateLimitedLog(log, Duration.ofSeconds(10));
+
+    private static final Counter CHUNKS_RECEIVED = Counter.builder("interviewbuddy.audio.received.chunks")
+            .description("Binary audio frames received from browsers")
+            .baseUnit("chunks")
+            .register(Metrics.globalRegistry);
+    private static final Counter BYTES_RECEIVED = Counter.builder("interviewbuddy.audio.received.bytes")
+            .description("Audio payload received from browsers")
+            .baseUnit("bytes")
+            .register(Metrics.globalRegistry);
+    private static final Counter RESUMED = Counter.builder("interviewbuddy.ws.sessions.resumed")
+            .description("ASR sessions taken over by a reconnecting client")
+            .register(Metrics.globalRegistry);
+
+    private static final Counter REAPED = Counter.builder("interviewbuddy.ws.sessions.reaped")
+            .description("Audio connections closed after sending no audio for the idle timeout")
+            .register(Metrics.globalRegistry);
+
+    static final CloseStatus BUSY = CloseStatus.SERVICE_OVERLOAD.withReason("No ASR capacity, try again later");
+    static final CloseStatus IDLE = new CloseStatus(4408, "No audio received");
+
+    /** Audio kept for a waiting connection, several seconds of the largest PCM formats. */
+    private static final int MAX_PARKED_BYTES = 1 << 20;
+
+    private static final String RESUME_ID = AudioWebSocketHandler.class.getName() + ".resumeId";
+    private static final String LAST_ACK = AudioWebSocketHandler.class.getName() + ".lastAck";
+
+    /** Per-connection ASR state, keyed by WebSocket session id. */
+    private final Map<String, AsrSession> sessions = new ConcurrentHashMap<>();
+    /** The connections in {@link #sessions}, so an idle one can be closed from the reaper. */
+    private final Map<String, WebSocketSession> sockets = new ConcurrentHashMap<>();
+
+    /** Connections waiting for an ASR slot, by WebSocket session id. */
+    private final Map<String, Parked> parked = new ConcurrentHashMap<>();
+
+    /** Sessions that can be resumed, by the id the client chose; see {@link Resumable}. */
+    private final Map<String, Resumable> resumable = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("asr-reaper").daemon().factory());
+
+    /**
+     * A resumable ASR session and the connection feeding it, or while it waits
+     * for a reconnect no connection and the task that closes it when the grace
+     * period is over.
+     */
+    private record Resumable(AsrSession asr, String webSocketId, ScheduledFuture<?> expiry) {
+    }
+
+    /**
+     * A connection waiting for an ASR slot. Audio a non-resumable client sends
+     * meanwhile is copied here and fed to its session once it is admitted; the
+     * lock orders that against the admission.
+     */
+    private static final class Parked {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final boolean resumable;
+        private final List<byte[]> early = new ArrayList<>();
+        private int earlyBytes;
+        private AsrAdmission.Ticket ticket;
+
+        Parked(boolean resumable) {
+            this.resumable = resumable;
+        }
+    }
+
+    @Autowired
+    private SpeechRecognizer speechRecognizer;
+
+    @Autowired
+    private TranscriptBus transcriptBus;
+
+    @Autowired
+    private ThreadFactory asrThreadFactory;
 
-    private volatile boolean googleAsrReady = false;
-    private volatile boolean hasReceivedFirstAudio = false;
-    private SpeechClient speechClient;
-    private ClientStream<StreamingRecognizeRequest> stream;
+    @Autowired
+    private SessionRecorder sessionRecorder;
 
     @Autowired
-    private PushService pushService;
+    private AsrAdmission admission;
+
+    @Value("${interviewbuddy.audio.pcm-input-rate:44100}")
+    private int pcmInputRate;
+
+    @Value("${interviewbuddy.audio.pcm-input-channels:1}")
+    private int pcmInputChannels;
+
+    @Value("${interviewbuddy.audio.target-rate:16000}")
+    private int targetRate;
+
+    @Value("${interviewbuddy.asr.language-code:en-US}")
+    private String languageCode;
+
+    @Value("${interviewbuddy.audio.queue.capacity:32}")
+    private int queueCapacity;
+
+    @Value("${interviewbuddy.audio.queue.policy:DROP_OLDEST}")
+    private AudioSendQueue.OverflowPolicy queuePolicy;
+
+    @Value("${interviewbuddy.audio.queue.block-timeout-ms:200}")
+    private long queueBlockTimeoutMillis;
+
+    @Value("${interviewbuddy.asr.rollover-after-seconds:240}")
+    private long rolloverAfterSeconds;
+
+    @Value("${interviewbuddy.asr.rollover-boundary-wait-ms:5000}")
+    private long rolloverBoundaryWaitMillis;
+
+    @Value("${interviewbuddy.asr.rollover-overlap-ms:1500}")
+    private long rolloverOverlapMillis;
+
+    @Value("${interviewbuddy.audio.vad.enabled:true}")
+    private boolean vadEnabled;
+
+    @Value("${interviewbuddy.audio.vad.margin-db:10}")
+    private double vadMarginDb;
+
+    @Value("${interviewbuddy.audio.vad.min-speech-db:-50}")
+    private double vadMinSpeechDb;
+
+    @Value("${interviewbuddy.audio.vad.pre-roll-ms:300}")
+    private long vadPreRollMillis;
+
+    @Value("${interviewbuddy.audio.vad.hangover-ms:600}")
+    private long vadHangoverMillis;
+
+    @Value("${interviewbuddy.audio.vad.idle-close-ms:5000}")
+    private long vadIdleCloseMillis;
+
+    @Value("${interviewbuddy.audio.resume.grace-ms:10000}")
+    private long resumeGraceMillis;
+
+    @Value("${interviewbuddy.audio.resume.ack-interval-ms:250}")
+    private long ackIntervalMillis;
+
+    @Value("${interviewbuddy.asr.admission.idle-timeout-seconds:30}")
+    private long idleTimeoutSeconds;
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
-        log.info("WebSocket connection established");
+        MultiValueMap<String, String> query = queryParameters(session);
+        String channel = query.getFirst("channel");
+        if (channel == null) {
+            log.warn("WebSocket {} connected without a transcript channel; results will not reach a UI",
+                    session.getId());
+        }
+        ClientAudioFormat format = ClientAudioFormat.fromParameter(query.getFirst("format"));
+        Integer rate = sampleRate(query.getFirst("rate"));
+        if (format == null || rate == null) {
+            log.warn("Rejecting WebSocket {}: unsupported audio format {} at rate {}", session.getId(),
+                    query.getFirst("format"), query.getFirst("rate"));
+            closeQuietly(session, CloseStatus.NOT_ACCEPTABLE.withReason("Unsupported audio format"));
+            return;
+        }
+        AudioIngestSettings audioSettings = new AudioIngestSettings(format, rate != 0 ? rate : pcmInputRate,
+                pcmInputChannels, targetRate, languageCode);
+        // Only framed PCM carries the sequence numbers a resumed client replays by.
+        String resumeId = format == ClientAudioFormat.PCM16_FRAMED ? query.getFirst("session") : null;
+        if (resumeId != null && resumeId.isBlank()) {
+            resumeId = null;
+        }
+        if (resumeId != null && resumable.containsKey(resumeId)) {
+            // A session held for a reconnect already has its slot.
+            attach(session, channel, audioSettings, resumeId, null);
+            return;
+        }
+        Parked waiting = new Parked(resumeId != null);
+        parked.put(session.getId(), waiting);
+        String resumable = resumeId;
+        waiting.lock.lock();
+        try {
+            waiting.ticket = admission.acquire(
+                    permit -> admitted(session, waiting, channel, audioSettings, resumable, permit));
+            if (waiting.ticket != null) {
+                send(session, "{\"queued\":true}");
+            }
+        } finally {
+            waiting.lock.unlock();
+        }
     }
 
-    @Override
-    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+    /**
+     * Completes the admission of a parked connection, on the calling thread
+     * or later on the admission thread: starts its ASR session with the slot
+     * and feeds it the audio that arrived meanwhile, or closes the connection
+     * if there is no slot.
+     */
+    private void admitted(WebSocketSession session, Parked waiting, String channel,
+            AudioIngestSettings audioSettings, String resumeId, AsrAdmission.Permit permit) {
+        waiting.lock.lock();
         try {
-            int payloadSize = message.getPayload().remaining();
-            if (payloadSize == 0) {
-                log.warn("Skipping empty payload");
+            if (permit == null) {
+                rejectLog.warn("Rejecting WebSocket {}: all {} ASR slots in use", session.getId(), admission.used());
+                closeQuietly(session, BUSY);
+                return;
+            }
+            if (!session.isOpen()) {
+                // The client gave up while it waited.
+                permit.close();
                 return;
             }
-            log.info("Audio chunk received: {} bytes", payloadSize);
-            if (!hasReceivedFirstAudio) {
-                hasReceivedFirstAudio = true;
-                log.info("First audio chunk received. Starting ASR...");
-                startGoogleAsrStream();
+            if (resumeId != null) {
+                attach(session, channel, audioSettings, resumeId, permit);
+                return;
             }
-            if (googleAsrReady && stream != null) {
-                byte[] audioBytes = toByteArray(message.getPayload());
-                stream.send(StreamingRecognizeRequest.newBuilder()
-                        .setAudioContent(ByteString.copyFrom(audioBytes))
-                        .build());
-            } else {
-                log.warn("Skipped sending audio, ASR not ready");
+            AsrSession asr = newAsrSession(session.getId(), channel, audioSettings, permit);
+            for (byte[] payload : waiting.early) {
+                asr.accept(ByteBuffer.wrap(payload));
             }
-        } catch (Exception e) {
-            log.error("Exception in handleBinaryMessage", e);
-        }
-    }
-
-    private byte[] toByteArray(ByteBuffer buffer) {
-        byte[] bytes = new byte[buffer.remaining()];
-        buffer.get(bytes);
-        return bytes;
-    }
-
-    private void startGoogleAsrStream() {
-        try (InputStream credentialsStream = getClass().getClassLoader()
-                .getResourceAsStream("credentials/interview-credentials.json")) {
-            if (credentialsStream == null) {
-                throw new RuntimeException("Credential file not found");
-            }
-            GoogleCredentials credentials = GoogleCredentials.fromStream(credentialsStream)
-                    .createScoped(List.of("https://www.googleapis.com/auth/cloud-platform"));
-            SpeechSettings settings = SpeechSettings.newBuilder()
-                    .setCredentialsProvider(() -> credentials)
-                    .build();
-            speechClient = SpeechClient.create(settings);
-
-            ResponseObserver<StreamingRecognizeResponse> responseObserver = responseObserver();
-            stream = speechClient.streamingRecognizeCallable().splitCall(responseObserver);
-
-            RecognitionConfig recognitionConfig = RecognitionConfig.newBuilder()
-                    .setEncoding(RecognitionConfig.AudioEncoding.LINEAR16)
-                    .setSampleRateHertz(44100) // match browser mic rate
-                    .setLanguageCode("en-US")
-                    .build();
-            StreamingRecognitionConfig streamConfig = StreamingRecognitionConfig.newBuilder()
-                    .setConfig(recognitionConfig)
-                    .setInterimResults(true)
-                    .setSingleUtterance(false)
-                    .build();
-            stream.send(StreamingRecognizeRequest.newBuilder()
-                    .setStreamingConfig(streamConfig)
-                    .build());
-
-            googleAsrReady = true;
-            log.info("Google ASR stream initialized successfully");
-        } catch (Exception e) {
-            log.error("Failed to start SpeechClient", e);
-            stream = null;
-            googleAsrReady = false;
+            waiting.early.clear();
+            sessions.put(session.getId(), asr);
+            sockets.put(session.getId(), session);
+            log.info("WebSocket connection established: {} ({} active)", session.getId(), sessions.size());
+        } catch (RuntimeException e) {
+            failureLog.error("Admitting WebSocket {} failed", session.getId(), e);
+            closeQuietly(session, CloseStatus.SERVER_ERROR);
+        } finally {
+            parked.remove(session.getId(), waiting);
+            waiting.lock.unlock();
         }
     }
 
-    private ResponseObserver<StreamingRecognizeResponse> responseObserver() {
-        return new ResponseObserver<>() {
-            @Override
-            public void onStart(StreamController controller) {
-                log.info("ASR gRPC stream started");
+    /**
+     * Connects a resumable client to the session held under its id, or to a
+     * new session with {@code permit}, and tells it where to resume.
+     */
+    private void attach(WebSocketSession session, String channel, AudioIngestSettings audioSettings,
+            String resumeId, AsrAdmission.Permit permit) {
+        boolean[] resumed = new boolean[1];
+        // Opening a session creates its recording files, so it is done before, not inside, the map's lock.
+        AsrSession created = null;
+        Resumable attached;
+        do {
+            if (created == null && !resumable.containsKey(resumeId)) {
+                // New, or expired while this connection was being admitted.
+                AsrAdmission.Permit slot = permit != null ? permit : admission.tryAcquire();
+                if (slot == null) {
+                    closeQuietly(session, BUSY);
+                    return;
+                }
+                permit = null;
+                created = newAsrSession(session.getId(), channel, audioSettings, slot);
             }
-
-            @Override
-            public void onResponse(StreamingRecognizeResponse response) {
-                response.getResultsList().forEach(result -> {
-                    boolean isFinal = result.getIsFinal();
-                    String transcript = result.getAlternativesCount() > 0
-                            ? result.getAlternatives(0).getTranscript()
-                            : "";
-                    if (!transcript.isBlank()) {
-                        log.debug("Transcription result ({}) : {}", isFinal ? "FINAL" : "PARTIAL", transcript);
-                    }
-                    if (isFinal) {
-                        pushService.pushTranscript(transcript);
-                    }
-                });
+            AsrSession fresh = created;
+            attached = resumable.compute(resumeId, (id, previous) -> {
+                if (previous == null) {
+                    return fresh == null ? null : new Resumable(fresh, session.getId(), null);
+                }
+                resumed[0] = true;
+                if (previous.expiry() != null) {
+                    previous.expiry().cancel(false);
+                }
+                if (previous.webSocketId() != null) {
+                    // The old connection is half-open; whatever it still delivers is ignored.
+                    sessions.remove(previous.webSocketId());
+                    sockets.remove(previous.webSocketId());
+                }
+                return new Resumable(previous.asr(), session.getId(), null);
+            });
+            // Null if the held session expired between the check and the update; open one after all.
+        } while (attached == null);
+        if (resumed[0]) {
+            // Resumed by another path while this connection waited; its slot is not needed.
+            if (created != null) {
+                created.close();
+            }
+            if (permit != null) {
+                permit.close();
             }
+        }
+        attached.asr().touch();
+        session.getAttributes().put(RESUME_ID, resumeId);
+        session.getAttributes().put(LAST_ACK, new AtomicLong(System.nanoTime()));
+        sessions.put(session.getId(), attached.asr());
+        sockets.put(session.getId(), session);
+        long next = attached.asr().resumeSequence();
+        send(session, "{\"resume\":" + next + "}");
+        if (resumed[0]) {
+            RESUMED.increment();
+            log.info("WebSocket {} resumed session {} at frame {} ({} active)", session.getId(), resumeId, next,
+                    sessions.size());
+        } else {
+            log.info("WebSocket connection established: {}, resumable as {} ({} active)", session.getId(),
+                    resumeId, sessions.size());
+        }
+    }
 
-            @Override
-            public void onError(Throwable t) {
-                log.error("Google ASR stream error", t);
-                googleAsrReady = false;
-                hasReceivedFirstAudio = false;
-                shutdownAsr();
+    private AsrSession newAsrSession(String id, String channel, AudioIngestSettings audioSettings,
+            AsrAdmission.Permit permit) {
+        SendQueueSettings queueSettings = new SendQueueSettings(queueCapacity, queuePolicy, queueBlockTimeoutMillis);
+        RolloverSettings rolloverSettings = new RolloverSettings(rolloverAfterSeconds * 1000,
+                rolloverBoundaryWaitMillis, rolloverOverlapMillis);
+        VadSettings vadSettings = new VadSettings(vadEnabled, vadMarginDb, vadMinSpeechDb, vadPreRollMillis,
+                vadHangoverMillis, vadIdleCloseMillis);
+        SessionRecording recording = null;
+        try {
+            recording = sessionRecorder.start(id, channel, audioSettings);
+            return new AsrSession(id, channel, speechRecognizer, transcriptBus, audioSettings, queueSettings,
+                    rolloverSettings, vadSettings, recording, permit, asrThreadFactory);
+        } catch (RuntimeException e) {
+            permit.close();
+            if (recording != null) {
+                recording.close();
             }
+            throw e;
+        }
+    }
 
-            @Override
-            public void onComplete() {
-                log.info("ASR stream completed");
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+        try {
+            ByteBuffer payload = message.getPayload();
+            int payloadSize = payload.remaining();
+            if (payloadSize == 0) {
+                log.debug("Skipping empty payload");
+                return;
+            }
+            CHUNKS_RECEIVED.increment();
+            BYTES_RECEIVED.increment(payloadSize);
+            AsrSession asr = sessions.get(session.getId());
+            if (asr == null) {
+                asr = admittedOrHeld(session, payload);
+                if (asr == null) {
+                    return;
+                }
             }
-        };
+            if (log.isTraceEnabled()) {
+                log.trace("Audio chunk received: {} bytes", payloadSize);
+            }
+            // The payload is Tomcat's frame buffer, reused after we return; the
+            // send queue copies it before accept returns.
+            asr.accept(payload);
+            acknowledge(session, asr);
+        } catch (IllegalStateException e) {
+            log.error("Rejecting audio on {}: {}", session.getId(), e.getMessage());
+            closeQuietly(session, CloseStatus.NOT_ACCEPTABLE.withReason(e.getMessage()));
+        } catch (Exception e) {
+            failureLog.error("Exception in handleBinaryMessage", e);
+        }
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
-        log.info("WebSocket closed: {}", status);
-        shutdownAsr();
+        log.info("WebSocket closed: {} {}", session.getId(), status);
+        Parked waiting = parked.remove(session.getId());
+        if (waiting != null) {
+            waiting.lock.lock();
+            try {
+                if (waiting.ticket != null) {
+                    waiting.ticket.cancel();
+                }
+            } finally {
+                waiting.lock.unlock();
+            }
+        }
+        sockets.remove(session.getId());
+        AsrSession asr = sessions.remove(session.getId());
+        if (asr == null) {
+            // Rejected, reaped, or taken over by a resumed connection.
+            return;
+        }
+        String resumeId = (String) session.getAttributes().get(RESUME_ID);
+        if (resumeId == null) {
+            asr.close();
+            return;
+        }
+        boolean detach = resumeGraceMillis > 0 && status.getCode() != CloseStatus.NORMAL.getCode()
+                && status.getCode() != CloseStatus.GOING_AWAY.getCode();
+        Resumable left = resumable.computeIfPresent(resumeId, (id, current) -> {
+            if (!session.getId().equals(current.webSocketId())) {
+                return current;
+            }
+            if (!detach) {
+                return null;
+            }
+            ScheduledFuture<?> expiry = reaper.schedule(() -> expire(id, asr), resumeGraceMillis,
+                    TimeUnit.MILLISECONDS);
+            return new Resumable(asr, null, expiry);
+        });
+        if (left == null) {
+            asr.close();
+        } else if (left.webSocketId() == null) {
+            log.info("Session {} held for {} ms awaiting reconnect", resumeId, resumeGraceMillis);
+        }
     }
 
-    private void shutdownAsr() {
-        if (speechClient != null) {
-            try {
-                speechClient.shutdown();
-                if (!speechClient.awaitTermination(1, TimeUnit.SECONDS)) {
-                    speechClient.shutdownNow();
+    /** Closes a detached session whose client did not come back in time. */
+    private void expire(String resumeId, AsrSession asr) {
+        Resumable current = resumable.get(resumeId);
+        if (current != null && current.asr() == asr && current.webSocketId() == null
+                && resumable.remove(resumeId, current)) {
+            log.info("Session {} was not resumed within {} ms, closing it", resumeId, resumeGraceMillis);
+            asr.close();
+        }
+    }
+
+    /**
+     * Closes connections that have sent no audio for the idle timeout, with
+     * their ASR sessions, including sockets that died without a close.
+     */
+    private void reapIdle() {
+        long timeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+        try {
+            sessions.forEach((webSocketId, asr) -> {
+                if (asr.idleNanos() < timeoutNanos || !sessions.remove(webSocketId, asr)) {
+                    return;
+                }
+                WebSocketSession socket = sockets.remove(webSocketId);
+                resumable.values().removeIf(r -> r.asr() == asr);
+                REAPED.increment();
+                log.info("WebSocket {} sent no audio for {} s, closing it", webSocketId, idleTimeoutSeconds);
+                asr.close();
+                if (socket != null) {
+                    closeQuietly(socket, IDLE);
                 }
-                log.info("SpeechClient shut down");
-            } catch (Exception e) {
-                log.warn("Error shutting down SpeechClient", e);
+            });
+        } catch (RuntimeException e) {
+            failureLog.error("Idle session sweep failed", e);
+        }
+    }
+
+    /**
+     * Audio for a connection without a session: returns the session if
+     * admission completed meanwhile, otherwise keeps a copy of the audio of a
+     * parked non-resumable client (a resumable one replays after admission)
+     * and returns null.
+     */
+    private AsrSession admittedOrHeld(WebSocketSession session, ByteBuffer payload) {
+        Parked waiting = parked.get(session.getId());
+        if (waiting == null) {
+            orphanLog.warn("No ASR session for {}, dropping {} bytes", session.getId(), payload.remaining());
+            return null;
+        }
+        waiting.lock.lock();
+        try {
+            AsrSession asr = sessions.get(session.getId());
+            if (asr != null || waiting.resumable) {
+                return asr;
+            }
+            if (waiting.earlyBytes + payload.remaining() > MAX_PARKED_BYTES) {
+                rejectLog.warn("Rejecting WebSocket {}: too much audio while waiting for an ASR slot",
+                        session.getId());
+                closeQuietly(session, BUSY);
+                return null;
             }
+            byte[] copy = new byte[payload.remaining()];
+            payload.get(copy);
+            waiting.early.add(copy);
+            waiting.earlyBytes += copy.length;
+            return null;
+        } finally {
+            waiting.lock.unlock();
+        }
+    }
+
+    /** Tells a resumable client, at most once per ack interval, which frame the server needs next. */
+    private void acknowledge(WebSocketSession session, AsrSession asr) {
+        AtomicLong lastAck = (AtomicLong) session.getAttributes().get(LAST_ACK);
+        if (lastAck == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - lastAck.get() >= TimeUnit.MILLISECONDS.toNanos(ackIntervalMillis)) {
+            lastAck.set(now);
+            send(session, "{\"ack\":" + asr.resumeSequence() + "}");
+        }
+    }
+
+    private static void send(WebSocketSession session, String text) {
+        try {
+            session.sendMessage(new TextMessage(text));
+        } catch (IOException e) {
+            log.debug("Could not send {} to WebSocket {}", text, session.getId(), e);
+        }
+    }
+
+    private static void closeQuietly(WebSocketSession session, CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException e) {
+            log.debug("Error closing WebSocket {}", session.getId(), e);
         }
-        stream = null;
-        googleAsrReady = false;
-        hasReceivedFirstAudio = false;
+    }
+
+    int activeSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * What the page passed on the URL: {@code channel}, identifying where
+     * transcripts go, and optionally the audio {@code format} and PCM
+     * sample {@code rate} it will send.
+     */
+    private static MultiValueMap<String, String> queryParameters(WebSocketSession session) {
+        if (session.getUri() == null) {
+            return new LinkedMultiValueMap<>();
+        }
+        return UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams();
+    }
+
+    /** The declared PCM rate, 0 if none was declared, or null if it is not a usable rate. */
+    private static Integer sampleRate(String value) {
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        try {
+            int rate = Integer.parseInt(value.trim());
+            return rate >= 8000 && rate <= 48000 ? rate : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (idleTimeoutSeconds > 0) {
+            long period = Math.max(1, idleTimeoutSeconds / 4);
+            reaper.scheduleWithFixedDelay(this::reapIdle, period, period, TimeUnit.SECONDS);
+        }
+        Gauge.builder("interviewbuddy.ws.sessions.active", sessions, Map::size)
+                .description("Open audio WebSocket connections")
+                .register(Metrics.globalRegistry);
+        Gauge.builder("interviewbuddy.ws.sessions.detached", resumable,
+                        r -> r.values().stream().filter(e -> e.webSocketId() == null).count())
+                .description("ASR sessions waiting for their client to reconnect")
+                .register(Metrics.globalRegistry);
+    }
+
+    @PreDestroy
+    void closeAll() {
+        reaper.shutdownNow();
+        parked.clear();
+        // Connected ones are also in sessions.
+        resumable.values().stream().filter(r -> r.webSocketId() == null).forEach(r -> r.asr().abort());
+        resumable.clear();
+        sessions.values().forEach(AsrSession::abort);
+        sessions.clear();
+        sockets.clear();
     }
 }
@@ -0,0 +1,31 @@
+package com.ai.interviewbuddy.ws;
+
+import java.util.Locale;
+
+/**
+ * What a client declared it will send, as the {@code format} query parameter
+ * of the audio WebSocket URL. Without one the format is detected from the
+ * first payload.
+ */
+enum ClientAudioFormat {
+    /** Not declared: WebM if the first payload looks like it, raw PCM otherwise. */
+    AUTO,
+    /** MediaRecorder output, {@code audio/webm} with Opus. */
+    WEBM,
+    /** Headerless little-endian 16-bit PCM. */
+    PCM16,
+    /** 16-bit PCM frames from the AudioWorklet capture, each behind a {@link FramedPcm16Ingest} header. */
+    PCM16_FRAMED;
+
+    /** Parses the query parameter value, e.g. {@code pcm16-framed}; null for an unknown format. */
+    static ClientAudioFormat fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return AUTO;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ai.interviewbuddy.ws;
+
+import com.ai.interviewbuddy.asr.AudioEncoding;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Ingest for the AudioWorklet capture mode of mic-stream.js. Every WebSocket
+ * message is one frame of 20-40 ms:
+ *
+ * <pre>
+ * offset 0  uint32 BE  sequence number, 0 for the first frame of a capture
+ * offset 4  uint32 BE  capture time of the first sample, ms since capture start
+ * offset 8  int16 LE[] mono PCM at the rate negotiated for the connection
+ * </pre>
+ *
+ * Frames repeating a sequence number already seen are dropped, so a client
+ * that reconnects may replay everything it has not seen acknowledged; a jump
+ * in the sequence is counted as lost frames. Sequence numbers are compared
+ * as 32-bit serial numbers, so the order holds when the counter wraps. The
+ * PCM itself goes through {@link Pcm16Ingest}, which passes it on untouched
+ * when the browser already captured at the target rate.
+ */
+final class FramedPcm16Ingest implements AudioIngest {
+    static final int HEADER_BYTES = 8;
+
+    private static final Counter LOST_FRAMES = Counter.builder("interviewbuddy.audio.frames.lost")
+            .description("Gaps in the sequence numbers of framed PCM clients")
+            .baseUnit("frames")
+            .register(Metrics.globalRegistry);
+
+    private final Pcm16Ingest pcm;
+    private final int inputRate;
+    /** Sequence number the next frame should carry, or -1 before the first frame. */
+    private long expectedSequence = -1;
+    private long lostFrames;
+
+    FramedPcm16Ingest(int inputRate, int targetRate) {
+        this.inputRate = inputRate;
+        this.pcm = new Pcm16Ingest(inputRate, 1, targetRate);
+    }
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+    @Override
+    public AudioEncoding encoding() {
+        return AudioEncoding.LINEAR16;
+    }
+
+    @Override
+    public int sampleRateHertz() {
+        return pcm.sampleRateHertz();
+    }
+
+    @Override
+    public void accept(ByteBuffer payload, Sink sink) {
+        if (payload.remaining() < HEADER_BYTES) {
+            throw new IllegalStateException("Audio frame of " + payload.remaining() + " bytes has no header");
+        }
+        ByteBuffer frame = payload.duplicate().order(ByteOrder.BIG_ENDIAN);
+        long sequence = Integer.toUnsignedLong(frame.getInt());
+        frame.getInt(); // capture timestamp; the sequence alone orders frames
+        if (expectedSequence >= 0) {
+            // Signed 32-bit distance: later frames are ahead even across the wrap from 2^32 - 1 to 0.
+            int ahead = (int) (sequence - expectedSequence);
+            if (ahead < 0) {
+                return;
+            }
+            if (ahead > 0) {
+                lostFrames += ahead;
+                LOST_FRAMES.increment(ahead);
+            }
+        }
+        expectedSequence = (sequence + 1) & 0xFFFFFFFFL;
+        pcm.accept(frame, sink);
+    }
+
+    /** Sequence number the next frame should carry, or -1 before the first frame. */
+    long expectedSequence() {
+        return expectedSequence;
+    }
+
+    long lostFrames() {
+        return lostFrames;
+    }
+
+    @Override
+    public String describe() {
+        return "framed PCM16 " + inputRate + " Hz mono -> " + pcm.sampleRateHertz() + " Hz";
+    }
+}
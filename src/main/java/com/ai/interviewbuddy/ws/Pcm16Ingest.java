@@ -0,0 +1,123 @@
+package com.ai.interviewbuddy.ws;
+
+import com.ai.interviewbuddy.asr.AudioEncoding;
+import com.google.protobuf.UnsafeByteOperations;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Ingest for raw little-endian 16-bit PCM. Interleaved channels are mixed
+ * down to mono and the signal is resampled to the target rate, which for
+ * 44.1/48 kHz input cuts what is sent upstream to roughly a third.
+ */
+final class Pcm16Ingest implements AudioIngest {
+    private final int inputRate;
+    private final int channels;
+    private final int targetRate;
+    private final PolyphaseResampler resampler;
+
+    /** Bytes of an incomplete sample frame left over from the previous payload. */
+    private final byte[] carry;
+    private int carryLength;
+
+    private float[] mono = new float[0];
+    private float[] resampled = new float[0];
+
+    Pcm16Ingest(int inputRate, int channels, int targetRate) {
+        this.inputRate = inputRate;
+        this.channels = Math.max(1, channels);
+        this.targetRate = targetRate;
+        this.resampler = new PolyphaseResampler(inputRate, targetRate);
+        this.carry = new byte[2 * this.channels];
+    }
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+    @Override
+    public AudioEncoding encoding() {
+        return AudioEncoding.LINEAR16;
+    }
+
+    @Override
+    public int sampleRateHertz() {
+        return targetRate;
+    }
+
+    @Override
+    public void accept(ByteBuffer payload, Sink sink) {
+        if (resampler.isPassthrough() && channels == 1 && carryLength == 0 && payload.remaining() % 2 == 0) {
+            // Already mono at the target rate: forward the frame buffer as is.
+            int samples = payload.remaining() / 2;
+            sink.accept(UnsafeByteOperations.unsafeWrap(payload.duplicate()), samples * 1000L / targetRate);
+            return;
+        }
+        ByteBuffer in = payload.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int frameBytes = 2 * channels;
+        int frames = (carryLength + in.remaining()) / frameBytes;
+        if (frames == 0) {
+            int n = in.remaining();
+            in.get(carry, carryLength, n);
+            carryLength += n;
+            return;
+        }
+        if (mono.length < frames) {
+            mono = new float[frames];
+        }
+        int frame = 0;
+        if (carryLength > 0) {
+            in.get(carry, carryLength, frameBytes - carryLength);
+            mono[frame++] = mix(ByteBuffer.wrap(carry).order(ByteOrder.LITTLE_ENDIAN));
+            carryLength = 0;
+        }
+        while (frame < frames) {
+            mono[frame++] = mix(in);
+        }
+        carryLength = in.remaining();
+        in.get(carry, 0, carryLength);
+
+        int outLength;
+        float[] out;
+        if (resampler.isPassthrough()) {
+            out = mono;
+            outLength = frames;
+        } else {
+            int max = resampler.maxOutput(frames);
+            if (resampled.length < max) {
+                resampled = new float[max];
+            }
+            out = resampled;
+            outLength = resampler.process(mono, frames, resampled);
+        }
+        if (outLength == 0) {
+            return;
+        }
+        byte[] pcm = new byte[outLength * 2];
+        for (int i = 0; i < outLength; i++) {
+            int s = Math.round(out[i]);
+            s = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, s));
+            pcm[2 * i] = (byte) s;
+            pcm[2 * i + 1] = (byte) (s >> 8);
+        }
+        sink.accept(UnsafeByteOperations.unsafeWrap(pcm), outLength * 1000L / targetRate);
+    }
+
+    private float mix(ByteBuffer in) {
+        if (channels == 1) {
+            return in.getShort();
+        }
+        int sum = 0;
+        for (int c = 0; c < channels; c++) {
+            sum += in.getShort();
+        }
+        return (float) sum / channels;
+    }
+
+    @Override
+    public String describe() {
+        return "PCM16 " + inputRate + " Hz x" + channels + " -> " + targetRate + " Hz mono";
+    }
+}
@@ -0,0 +1,97 @@
+package com.ai.interviewbuddy.ws;
+
+/**
+ * Streaming rational resampler for mono float samples.
+ *
+ * The rate change is reduced to L/M (e.g. 44100 to 16000 is 160/441) and a
+ * windowed-sinc low-pass prototype is split into L polyphase branches, so each
+ * output sample costs one short dot product and no zero-stuffed samples are
+ * ever computed. The tail of each block is kept as history, so blocks of any
+ * length can be processed without clicks at the seams.
+ */
+final class PolyphaseResampler {
+    private static final int ZERO_CROSSINGS = 8;
+
+    private final int up;
+    private final int down;
+    private final int tapsPerPhase;
+    /** Coefficients laid out phase-major: phase p uses [p * tapsPerPhase, (p + 1) * tapsPerPhase). */
+    private final float[] coefficients;
+
+    private float[] history;
+    private float[] work = new float[0];
+    private int phase;
+    private int position;
+
+    PolyphaseResampler(int inputRate, int outputRate) {
+        int g = gcd(inputRate, outputRate);
+        this.up = outputRate / g;
+        this.down = inputRate / g;
+        int halfLength = (int) Math.ceil(ZERO_CROSSINGS * Math.max(1.0, (double) down / up));
+        this.tapsPerPhase = 2 * halfLength;
+        this.coefficients = design(up, down, tapsPerPhase);
+        this.history = new float[tapsPerPhase - 1];
+    }
+
+    boolean isPassthrough() {
+        return up == 1 && down == 1;
+    }
+
+    /** Upper bound on the output length for an input block of {@code inputLength} samples. */
+    int maxOutput(int inputLength) {
+        return (int) (((long) inputLength * up) / down) + 2;
+    }
+
+    /**
+     * Resamples one block, writing into {@code output} and returning the number
+     * of samples written.
+     */
+    int process(float[] input, int length, float[] output) {
+        int historyLength = history.length;
+        int total = historyLength + length;
+        if (work.length < total) {
+            work = new float[total];
+        }
+        System.arraycopy(history, 0, work, 0, historyLength);
+        System.arraycopy(input, 0, work, historyLength, length);
+
+        int written = 0;
+        while (position < length) {
+            int newest = historyLength + position;
+            int base = phase * tapsPerPhase;
+            float acc = 0f;
+            for (int k = 0; k < tapsPerPhase; k++) {
+                acc += coefficients[base + k] * work[newest - k];
+            }
+            output[written++] = acc;
+            phase += down;
+            position += phase / up;
+            phase %= up;
+        }
+        position -= length;
+        System.arraycopy(work, total - historyLength, history, 0, historyLength);
+        return written;
+    }
+
+    private static float[] design(int up, int down, int tapsPerPhase) {
+        int length = up * tapsPerPhase;
+        // Cutoff relative to the upsampled rate, just under the lower Nyquist.
+        double cutoff = 0.5 / Math.max(up, down) * 0.92;
+        double center = (length - 1) / 2.0;
+        float[] phased = new float[length];
+        for (int n = 0; n < length; n++) {
+            double x = n - center;
+            double sinc = x == 0 ? 2 * cutoff : Math.sin(2 * Math.PI * cutoff * x) / (Math.PI * x);
+            double window = 0.42 - 0.5 * Math.cos(2 * Math.PI * n / (length - 1))
+                    + 0.08 * Math.cos(4 * Math.PI * n / (length - 1));
+            int p = n % up;
+            int k = n / up;
+            phased[p * tapsPerPhase + k] = (float) (sinc * window * up);
+        }
+        return phased;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -0,0 +1,136 @@
+package com.ai.interviewbuddy.ws;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * A session recording written by {@link SessionRecording}, opened for replay.
+ * The audio and index are mapped read-only, so chunks are views into the
+ * page cache rather than copies; a recording must be under 2 GB.
+ */
+final class RecordedSession {
+
+    static final String SESSION = "session";
+    static final String CHANNEL = "channel";
+    static final String STARTED_AT = "started-at";
+    static final String FORMAT = "format";
+    static final String PCM_INPUT_RATE = "pcm-input-rate";
+    static final String PCM_CHANNELS = "pcm-channels";
+    static final String LANGUAGE_CODE = "language-code";
+
+    private final Path directory;
+    private final Properties properties;
+    private final MappedByteBuffer audio;
+    private final MappedByteBuffer index;
+    private final int chunkCount;
+
+    private RecordedSession(Path directory, Properties properties, MappedByteBuffer audio, MappedByteBuffer index) {
+        this.directory = directory;
+        this.properties = properties;
+        this.audio = audio;
+        this.index = index;
+        this.chunkCount = countChunks(index);
+    }
+
+    static boolean isRecording(Path directory) {
+        return Files.isRegularFile(directory.resolve(SessionRecording.PROPERTIES_FILE))
+                && Files.isRegularFile(directory.resolve(SessionRecording.INDEX_FILE));
+    }
+
+    static RecordedSession open(Path directory) throws IOException {
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(directory.resolve(SessionRecording.PROPERTIES_FILE),
+                StandardCharsets.UTF_8)) {
+            properties.load(in);
+        }
+        return new RecordedSession(directory, properties, map(directory.resolve(SessionRecording.AUDIO_FILE)),
+                map(directory.resolve(SessionRecording.INDEX_FILE)));
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to replay");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /** Entries up to the end of the file, or the first empty one if it was not truncated. */
+    private static int countChunks(ByteBuffer index) {
+        int entries = index.capacity() / SessionRecording.INDEX_ENTRY_BYTES;
+        for (int i = 0; i < entries; i++) {
+            if (index.getInt(i * SessionRecording.INDEX_ENTRY_BYTES + 16) == 0) {
+                return i;
+            }
+        }
+        return entries;
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    String session() {
+        return properties.getProperty(SESSION, directory.getFileName().toString());
+    }
+
+    String channel() {
+        return properties.getProperty(CHANNEL);
+    }
+
+    Instant startedAt() {
+        return Instant.parse(properties.getProperty(STARTED_AT));
+    }
+
+    ClientAudioFormat format() {
+        return ClientAudioFormat.valueOf(properties.getProperty(FORMAT, ClientAudioFormat.AUTO.name()));
+    }
+
+    /** The {@code format} query parameter that declares this recording's format. */
+    String formatParameter() {
+        return format().name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    int pcmInputRate() {
+        return Integer.parseInt(properties.getProperty(PCM_INPUT_RATE, "16000"));
+    }
+
+    int pcmChannels() {
+        return Integer.parseInt(properties.getProperty(PCM_CHANNELS, "1"));
+    }
+
+    String languageCode() {
+        return properties.getProperty(LANGUAGE_CODE);
+    }
+
+    int chunkCount() {
+        return chunkCount;
+    }
+
+    /** When chunk {@code i} arrived, in nanoseconds since the recording started. */
+    long arrivalNanos(int i) {
+        return index.getLong(i * SessionRecording.INDEX_ENTRY_BYTES);
+    }
+
+    /** Chunk {@code i} as received, a read-only view. */
+    ByteBuffer chunk(int i) {
+        int entry = i * SessionRecording.INDEX_ENTRY_BYTES;
+        int offset = (int) index.getLong(entry + 8);
+        int length = index.getInt(entry + 16);
+        return audio.slice(offset, length);
+    }
+
+    long durationNanos() {
+        return chunkCount == 0 ? 0 : arrivalNanos(chunkCount - 1);
+    }
+}
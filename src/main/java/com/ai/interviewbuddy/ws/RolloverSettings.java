@@ -0,0 +1,9 @@
+package com.ai.interviewbuddy.ws;
+
+/**
+ * When a recognize stream is replaced before Google's streaming duration
+ * limit, how long to wait for an utterance boundary, and how much recent
+ * audio is replayed into the new stream.
+ */
+record RolloverSettings(long rolloverAfterMillis, long boundaryWaitMillis, long overlapMillis) {
+}
@@ -0,0 +1,7 @@
+package com.ai.interviewbuddy.ws;
+
+/**
+ * Size and overflow behaviour of the per-session audio send queue.
+ */
+record SendQueueSettings(int capacity, AudioSendQueue.OverflowPolicy policy, long blockTimeoutMillis) {
+}
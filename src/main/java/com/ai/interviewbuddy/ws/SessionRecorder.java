@@ -0,0 +1,123 @@
+package com.ai.interviewbuddy.ws;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Optionally records the audio each session receives under
+ * {@code interviewbuddy.recording.directory}, one directory per session, for
+ * replaying it through the pipeline later (see {@code RecordingReplay} in the
+ * load test sources). Off by default: recordings hold interview audio.
+ */
+@Component
+public class SessionRecorder {
+    private static final Logger log = LoggerFactory.getLogger(SessionRecorder.class);
+
+    private static final DateTimeFormatter DIRECTORY_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+
+    private static final Counter RECORDED = chunks("recorded");
+    private static final Counter LEFT_OUT = chunks("dropped");
+
+    private static Counter chunks(String result) {
+        return Counter.builder("interviewbuddy.recording.chunks")
+                .description("Received audio payloads by whether they made it into the session recording")
+                .tag("result", result)
+                .register(Metrics.globalRegistry);
+    }
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int regionBytes;
+    /** Maps the next file region ahead of the writers, so they never wait for the kernel. */
+    private final ExecutorService mapper = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("recording-mapper").daemon().factory());
+
+    public SessionRecorder(@Value("${interviewbuddy.recording.enabled:false}") boolean enabled,
+            @Value("${interviewbuddy.recording.directory:recordings}") String directory,
+            @Value("${interviewbuddy.recording.region-size-mb:16}") int regionSizeMb) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.regionBytes = Math.max(1, regionSizeMb) << 20;
+        if (enabled) {
+            log.info("Recording session audio to {}", this.directory.toAbsolutePath());
+        }
+    }
+
+    /** Starts a recording for a new session, or returns null if recording is off or cannot start. */
+    SessionRecording start(String id, String channel, AudioIngestSettings settings) {
+        if (!enabled) {
+            return null;
+        }
+        Instant now = Instant.now();
+        String name = DIRECTORY_TIME.format(now) + "-" + fileSafe(channel == null ? "none" : channel) + "-"
+                + fileSafe(id);
+        Path target = directory.resolve(name);
+        try {
+            Files.createDirectories(target);
+            writeProperties(target, id, channel, settings, now);
+            return new SessionRecording(target, regionBytes, mapper);
+        } catch (IOException e) {
+            log.warn("Not recording session {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    /** Tees one payload into the session's recording, if it has one. */
+    static void record(SessionRecording recording, ByteBuffer payload) {
+        if (recording == null) {
+            return;
+        }
+        if (recording.append(payload)) {
+            RECORDED.increment();
+        } else {
+            LEFT_OUT.increment();
+        }
+    }
+
+    private static void writeProperties(Path target, String id, String channel, AudioIngestSettings settings,
+            Instant startedAt) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(RecordedSession.SESSION, id);
+        if (channel != null) {
+            properties.setProperty(RecordedSession.CHANNEL, channel);
+        }
+        properties.setProperty(RecordedSession.STARTED_AT, startedAt.toString());
+        properties.setProperty(RecordedSession.FORMAT, settings.format().name());
+        properties.setProperty(RecordedSession.PCM_INPUT_RATE, Integer.toString(settings.pcmInputRate()));
+        properties.setProperty(RecordedSession.PCM_CHANNELS, Integer.toString(settings.pcmChannels()));
+        properties.setProperty(RecordedSession.LANGUAGE_CODE, settings.languageCode());
+        try (Writer out = Files.newBufferedWriter(target.resolve(SessionRecording.PROPERTIES_FILE),
+                StandardCharsets.UTF_8)) {
+            properties.store(out, "Session audio recording");
+        }
+    }
+
+    private static String fileSafe(String value) {
+        return value.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        mapper.shutdownNow();
+    }
+}
@@ -0,0 +1,229 @@
+package com.ai.interviewbuddy.ws;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only recording of the audio one session received, as the client sent
+ * it, so the session can be fed through the pipeline again later.
+ *
+ * {@code audio.seg} holds the payloads back to back. {@code audio.idx} has one
+ * {@link #INDEX_ENTRY_BYTES}-byte big-endian entry per payload: nanoseconds
+ * since the recording started (long), offset in {@code audio.seg} (long) and
+ * length (int). A zero length marks the end of an index that was not
+ * truncated, e.g. after a crash. {@code recording.properties} describes the
+ * audio format; see {@link RecordedSession}.
+ *
+ * Both files are written through memory-mapped regions, so appending is a copy
+ * into the page cache on the WebSocket thread. The region after the current one
+ * is mapped ahead on the recorder's executor; if it is not ready when needed,
+ * the payload is left out of the recording and counted, rather than waiting.
+ */
+class SessionRecording {
+    private static final Logger log = LoggerFactory.getLogger(SessionRecording.class);
+
+    static final String AUDIO_FILE = "audio.seg";
+    static final String INDEX_FILE = "audio.idx";
+    static final String PROPERTIES_FILE = "recording.properties";
+    static final int INDEX_ENTRY_BYTES = 20;
+    /** Index regions hold whole entries: 4096 of them, about 80 s of 20 ms frames. */
+    private static final int INDEX_REGION_BYTES = INDEX_ENTRY_BYTES * 4096;
+
+    private final Path directory;
+    private final MappedAppender audio;
+    private final MappedAppender index;
+    private final long startNanos = System.nanoTime();
+    /** Guards the appenders against a close from another thread; uncontended otherwise. */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES);
+
+    private long chunks;
+    private long droppedChunks;
+    private boolean failed;
+    private boolean closed;
+
+    SessionRecording(Path directory, int regionBytes, Executor mapper) throws IOException {
+        this.directory = directory;
+        this.audio = new MappedAppender(directory.resolve(AUDIO_FILE), regionBytes, mapper);
+        try {
+            this.index = new MappedAppender(directory.resolve(INDEX_FILE), INDEX_REGION_BYTES, mapper);
+        } catch (IOException e) {
+            audio.close();
+            throw e;
+        }
+    }
+
+    Path directory() {
+        return directory;
+    }
+
+    /**
+     * Copies the payload's remaining bytes into the recording without moving
+     * its position. Returns false if it was left out: the next region was
+     * not mapped yet, or the recording failed or is closed.
+     */
+    boolean append(ByteBuffer payload) {
+        int length = payload.remaining();
+        long elapsed = System.nanoTime() - startNanos;
+        lock.lock();
+        try {
+            if (closed || failed) {
+                return false;
+            }
+            if (!audio.canAppend(length) || !index.canAppend(INDEX_ENTRY_BYTES)) {
+                droppedChunks++;
+                return false;
+            }
+            long offset = audio.position();
+            audio.append(payload.duplicate());
+            entry.clear();
+            entry.putLong(elapsed).putLong(offset).putInt(length).flip();
+            index.append(entry);
+            chunks++;
+            return true;
+        } catch (CompletionException | UncheckedIOException | RejectedExecutionException e) {
+            // A region could not be mapped, typically because the disk is full, or the application is stopping.
+            failed = true;
+            log.warn("Recording in {} stopped: {}", directory, e.getMessage());
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long chunks() {
+        return chunks;
+    }
+
+    long bytes() {
+        return audio.position();
+    }
+
+    long droppedChunks() {
+        return droppedChunks;
+    }
+
+    /** Cuts both files to what was written and releases them; later appends are ignored. */
+    void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            audio.close();
+            index.close();
+        } finally {
+            lock.unlock();
+        }
+        log.info("Recording {} closed: {} chunks, {} bytes, {} left out", directory, chunks, audio.position(),
+                droppedChunks);
+    }
+
+    /**
+     * Appends to a file through consecutive mapped regions of a fixed size;
+     * mapping a region past the end grows the file.
+     */
+    private static final class MappedAppender {
+        private final Path path;
+        private final FileChannel channel;
+        private final int regionBytes;
+        private final Executor mapper;
+        private MappedByteBuffer region;
+        /** File offset of the start of {@link #region}. */
+        private long regionStart;
+        private CompletableFuture<MappedByteBuffer> next;
+        /** Keeps a mapping ahead from growing the file again after {@link #close()} truncated it. */
+        private final ReentrantLock mapLock = new ReentrantLock();
+
+        MappedAppender(Path path, int regionBytes, Executor mapper) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.regionBytes = regionBytes;
+            this.mapper = mapper;
+            this.region = channel.map(FileChannel.MapMode.READ_WRITE, 0, regionBytes);
+            mapAhead();
+        }
+
+        long position() {
+            return regionStart + region.position();
+        }
+
+        /** Whether {@code length} bytes fit in the current region and, if they spill over, the mapped next one. */
+        boolean canAppend(int length) {
+            if (length <= region.remaining()) {
+                return true;
+            }
+            if (!next.isDone()) {
+                return false;
+            }
+            if (next.isCompletedExceptionally()) {
+                next.join();
+            }
+            return length - region.remaining() <= regionBytes;
+        }
+
+        /** Copies {@code source} in, moving on to the next region when the current one is full. */
+        void append(ByteBuffer source) {
+            while (source.hasRemaining()) {
+                if (!region.hasRemaining()) {
+                    regionStart += regionBytes;
+                    region = next.join();
+                    mapAhead();
+                }
+                int length = Math.min(source.remaining(), region.remaining());
+                region.put(region.position(), source, source.position(), length);
+                region.position(region.position() + length);
+                source.position(source.position() + length);
+            }
+        }
+
+        private void mapAhead() {
+            long start = regionStart + regionBytes;
+            next = CompletableFuture.supplyAsync(() -> {
+                mapLock.lock();
+                try {
+                    if (!channel.isOpen()) {
+                        throw new ClosedChannelException();
+                    }
+                    return channel.map(FileChannel.MapMode.READ_WRITE, start, regionBytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not map " + path, e);
+                } finally {
+                    mapLock.unlock();
+                }
+            }, mapper);
+        }
+
+        /**
+         * The regions stay mapped until they are collected; nothing touches
+         * them after this, so truncating underneath them is safe.
+         */
+        void close() {
+            mapLock.lock();
+            try {
+                channel.truncate(position());
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Could not finish {}: {}", path, e.getMessage());
+            } finally {
+                mapLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.ai.interviewbuddy.ws;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+
+/**
+ * Removes words repeated at the seam between two recognize streams.
+ *
+ * When a stream is rolled over, the last moments of audio are replayed into
+ * its successor, so the successor's first final result usually starts with
+ * words the previous stream already finalized. That leading run is dropped if
+ * it matches the tail of what was already delivered.
+ */
+final class TranscriptDeduplicator {
+    private static final int TAIL_WORDS = 32;
+
+    /** Normalized tail of everything delivered so far. */
+    private final Deque<String> tail = new ArrayDeque<>(TAIL_WORDS);
+    private int seamGeneration = -1;
+
+    /** Marks the first final of {@code generation} as one that may overlap. */
+    synchronized void expectOverlap(int generation) {
+        seamGeneration = generation;
+    }
+
+    /**
+     * Returns the part of a final transcript that has not been delivered yet,
+     * and records it.
+     */
+    synchronized String accept(int generation, String transcript) {
+        String[] words = transcript.trim().split("\\s+");
+        int skip = 0;
+        if (generation == seamGeneration) {
+            seamGeneration = -1;
+            skip = overlap(words);
+        }
+        StringBuilder kept = new StringBuilder();
+        for (int i = skip; i < words.length; i++) {
+            if (words[i].isEmpty()) {
+                continue;
+            }
+            if (!kept.isEmpty()) {
+                kept.append(' ');
+            }
+            kept.append(words[i]);
+            if (tail.size() == TAIL_WORDS) {
+                tail.removeFirst();
+            }
+            tail.addLast(normalize(words[i]));
+        }
+        return kept.toString();
+    }
+
+    /** Length of the longest prefix of {@code words} that equals a suffix of the tail. */
+    private int overlap(String[] words) {
+        String[] previous = tail.toArray(String[]::new);
+        int max = Math.min(previous.length, words.length);
+        for (int n = max; n > 0; n--) {
+            boolean match = true;
+            for (int i = 0; i < n && match; i++) {
+                match = previous[previous.length - n + i].equals(normalize(words[i]));
+            }
+            if (match) {
+                return n;
+            }
+        }
+        return 0;
+    }
+
+    private static String normalize(String word) {
+        return word.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}']", "");
+    }
+}
@@ -0,0 +1,11 @@
+package com.ai.interviewbuddy.ws;
+
+/**
+ * Voice activity detection: how far above the noise floor (and above an
+ * absolute level) a frame must be to count as speech, how much audio before
+ * an onset is kept, how long speech is held open after the level drops, and
+ * after how much silence the recognize stream is closed.
+ */
+record VadSettings(boolean enabled, double marginDb, double minSpeechDb, long preRollMillis, long hangoverMillis,
+        long idleCloseMillis) {
+}
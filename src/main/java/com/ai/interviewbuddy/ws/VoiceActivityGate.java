@@ -0,0 +1,219 @@
+package com.ai.interviewbuddy.ws;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Energy and zero-crossing voice activity detector that sits between a PCM
+ * ingest and the send queue and only lets speech through.
+ *
+ * Audio is classified in 20 ms frames against an adaptive noise floor. While
+ * there is no speech, frames are kept in a short pre-roll ring instead of
+ * being sent; when speech starts the ring is flushed ahead of the onset so
+ * the first syllable is not clipped. After speech the gate stays open for a
+ * hangover period to bridge pauses between words.
+ *
+ * Only used for LINEAR16 audio. Not thread-safe; fed by the WebSocket thread.
+ */
+final class VoiceActivityGate implements AudioIngest.Sink {
+
+    /** Utterance boundaries as seen by the detector. */
+    interface Listener {
+        void onSpeechStart();
+
+        void onSpeechEnd(long speechMillis);
+
+        /** Called once when silence has lasted the idle-close period. */
+        void onIdle();
+    }
+
+    private static final int FRAME_MILLIS = 20;
+    /** Consecutive speech frames needed to open the gate, so clicks do not. */
+    private static final int ONSET_FRAMES = 2;
+    /** Zero-crossing rate above which a quieter frame is taken as an unvoiced consonant. */
+    private static final double FRICATIVE_ZCR = 0.25;
+    private static final double INITIAL_FLOOR_DB = -60;
+
+    private static final Counter SUPPRESSED = Counter.builder("interviewbuddy.audio.vad.suppressed")
+            .description("Audio held back from the recognizer as silence")
+            .baseUnit("seconds")
+            .register(Metrics.globalRegistry);
+    private static final Counter FORWARDED = Counter.builder("interviewbuddy.audio.vad.forwarded")
+            .description("Audio passed to the recognizer as speech")
+            .baseUnit("seconds")
+            .register(Metrics.globalRegistry);
+
+    private final AudioIngest.Sink downstream;
+    private final Listener listener;
+    private final double marginDb;
+    private final double minSpeechDb;
+    private final int hangoverFrames;
+    private final int idleFrames;
+
+    private final byte[] frame;
+    private int frameFill;
+
+    private final byte[][] preRoll;
+    private int preRollStart;
+    private int preRollCount;
+
+    private byte[] out = new byte[0];
+    private int outLength;
+
+    private double noiseFloorDb = INITIAL_FLOOR_DB;
+    private boolean speaking;
+    private int speechRun;
+    private int silenceRun;
+    private long speechFrames;
+    private boolean idleReported = true;
+
+    private long suppressedMillis;
+    private long forwardedMillis;
+
+    VoiceActivityGate(int sampleRate, VadSettings settings, AudioIngest.Sink downstream, Listener listener) {
+        this.downstream = downstream;
+        this.listener = listener;
+        this.marginDb = settings.marginDb();
+        this.minSpeechDb = settings.minSpeechDb();
+        this.hangoverFrames = (int) Math.max(1, settings.hangoverMillis() / FRAME_MILLIS);
+        this.idleFrames = (int) Math.max(1, settings.idleCloseMillis() / FRAME_MILLIS);
+        this.frame = new byte[sampleRate * FRAME_MILLIS / 1000 * 2];
+        this.preRoll = new byte[(int) Math.max(ONSET_FRAMES, settings.preRollMillis() / FRAME_MILLIS)][frame.length];
+    }
+
+    long suppressedMillis() {
+        return suppressedMillis;
+    }
+
+    long forwardedMillis() {
+        return forwardedMillis;
+    }
+
+    /**
+     * Takes a chunk from the ingest; whatever passes the gate is forwarded as
+     * one chunk before returning.
+     */
+    @Override
+    public void accept(ByteString audio, long durationMillis) {
+        long suppressedBefore = suppressedMillis;
+        long forwardedBefore = forwardedMillis;
+        ByteBuffer in = audio.asReadOnlyByteBuffer();
+        while (in.hasRemaining()) {
+            int n = Math.min(in.remaining(), frame.length - frameFill);
+            in.get(frame, frameFill, n);
+            frameFill += n;
+            if (frameFill == frame.length) {
+                frameFill = 0;
+                onFrame();
+            }
+        }
+        if (outLength > 0) {
+            int length = outLength;
+            outLength = 0;
+            downstream.accept(UnsafeByteOperations.unsafeWrap(out, 0, length),
+                    (long) length / frame.length * FRAME_MILLIS);
+        }
+        if (suppressedMillis != suppressedBefore) {
+            SUPPRESSED.increment((suppressedMillis - suppressedBefore) / 1000.0);
+        }
+        if (forwardedMillis != forwardedBefore) {
+            FORWARDED.increment((forwardedMillis - forwardedBefore) / 1000.0);
+        }
+    }
+
+    private void onFrame() {
+        boolean voiced = isSpeech();
+        if (speaking) {
+            append(frame);
+            forwardedMillis += FRAME_MILLIS;
+            speechFrames++;
+            silenceRun = voiced ? 0 : silenceRun + 1;
+            if (silenceRun >= hangoverFrames) {
+                speaking = false;
+                speechRun = 0;
+                listener.onSpeechEnd(speechFrames * FRAME_MILLIS);
+            }
+            return;
+        }
+        speechRun = voiced ? speechRun + 1 : 0;
+        if (speechRun >= ONSET_FRAMES) {
+            speaking = true;
+            silenceRun = 0;
+            speechFrames = 0;
+            idleReported = false;
+            listener.onSpeechStart();
+            // The pre-roll ring already holds the onset frames except this one.
+            suppressedMillis -= (long) preRollCount * FRAME_MILLIS;
+            forwardedMillis += (long) (preRollCount + 1) * FRAME_MILLIS;
+            for (int i = 0; i < preRollCount; i++) {
+                append(preRoll[(preRollStart + i) % preRoll.length]);
+            }
+            preRollStart = 0;
+            preRollCount = 0;
+            append(frame);
+            return;
+        }
+        suppressedMillis += FRAME_MILLIS;
+        silenceRun++;
+        remember(frame);
+        if (!idleReported && silenceRun >= idleFrames) {
+            idleReported = true;
+            listener.onIdle();
+        }
+    }
+
+    /** Classifies the current frame and adapts the noise floor on non-speech. */
+    private boolean isSpeech() {
+        ByteBuffer samples = ByteBuffer.wrap(frame).order(ByteOrder.LITTLE_ENDIAN);
+        int count = frame.length / 2;
+        double energy = 0;
+        int crossings = 0;
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            int s = samples.getShort();
+            energy += (double) s * s;
+            if (i > 0 && (s >= 0) != (previous >= 0)) {
+                crossings++;
+            }
+            previous = s;
+        }
+        double rms = Math.sqrt(energy / count) / Short.MAX_VALUE;
+        double db = 20 * Math.log10(Math.max(rms, 1e-9));
+        double zcr = (double) crossings / count;
+
+        boolean voiced = db >= minSpeechDb && db >= noiseFloorDb + marginDb;
+        boolean unvoiced = db >= minSpeechDb && db >= noiseFloorDb + marginDb / 2 && zcr >= FRICATIVE_ZCR;
+        boolean speech = voiced || unvoiced;
+        if (!speech) {
+            // Follow the floor down quickly and up slowly, so speech does not raise it.
+            noiseFloorDb += (db < noiseFloorDb ? 0.3 : 0.02) * (db - noiseFloorDb);
+        }
+        return speech;
+    }
+
+    private void remember(byte[] source) {
+        int slot;
+        if (preRollCount < preRoll.length) {
+            slot = (preRollStart + preRollCount++) % preRoll.length;
+        } else {
+            slot = preRollStart;
+            preRollStart = (preRollStart + 1) % preRoll.length;
+        }
+        System.arraycopy(source, 0, preRoll[slot], 0, source.length);
+    }
+
+    private void append(byte[] source) {
+        if (out.length < outLength + source.length) {
+            byte[] grown = new byte[Math.max(out.length * 2, outLength + source.length)];
+            System.arraycopy(out, 0, grown, 0, outLength);
+            out = grown;
+        }
+        System.arraycopy(source, 0, out, outLength, source.length);
+        outLength += source.length;
+    }
+}
@@ -0,0 +1,261 @@
+package com.ai.interviewbuddy.ws;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Incremental WebM/Matroska parser for the audio-only streams produced by
+ * MediaRecorder.
+ *
+ * Data can be fed in arbitrary slices; elements split across WebSocket frames
+ * are completed on the next call. Only the elements needed to forward audio
+ * are buffered: master elements (including the unknown-sized Segment and
+ * Cluster MediaRecorder emits) are descended into, blocks are handed to the
+ * listener, and everything else is skipped without being copied.
+ */
+final class WebmDemuxer {
+
+    interface Listener {
+        /** Called once, when the first Cluster starts, with every byte that preceded it. */
+        void onHeader(byte[] initSegment);
+
+        void onClusterStart(long timecode);
+
+        /** Called with the body of a SimpleBlock or Block (track, relative timecode, flags, frames). */
+        void onBlock(byte[] data, int offset, int length);
+    }
+
+    private static final int EBML = 0x1A45DFA3;
+    private static final int SEGMENT = 0x18538067;
+    private static final int INFO = 0x1549A966;
+    private static final int TIMECODE_SCALE = 0x2AD7B1;
+    private static final int TRACKS = 0x1654AE6B;
+    private static final int TRACK_ENTRY = 0xAE;
+    private static final int CODEC_ID = 0x86;
+    private static final int AUDIO = 0xE1;
+    private static final int SAMPLING_FREQUENCY = 0xB5;
+    private static final int CHANNELS = 0x9F;
+    static final int CLUSTER = 0x1F43B675;
+    static final int TIMECODE = 0xE7;
+    static final int SIMPLE_BLOCK = 0xA3;
+    private static final int BLOCK_GROUP = 0xA0;
+    private static final int BLOCK = 0xA1;
+
+    private static final Set<Integer> MASTERS = Set.of(SEGMENT, INFO, TRACKS, TRACK_ENTRY, AUDIO, CLUSTER,
+            BLOCK_GROUP);
+    private static final Set<Integer> LEAVES = Set.of(TIMECODE_SCALE, CODEC_ID, SAMPLING_FREQUENCY, CHANNELS,
+            TIMECODE, SIMPLE_BLOCK, BLOCK);
+    /** Upper bound for a single buffered element; a 250 ms Opus block is a few hundred bytes. */
+    private static final int MAX_ELEMENT_SIZE = 1 << 20;
+
+    private final Listener listener;
+
+    private byte[] buf = new byte[4096];
+    private int start;
+    private int end;
+    private long skip;
+
+    private final ByteArrayOutputStream initSegment = new ByteArrayOutputStream();
+    private boolean headerComplete;
+
+    private long timecodeScale = 1_000_000;
+    private String codecId;
+    private int samplingFrequency;
+    private int channels = 1;
+
+    WebmDemuxer(Listener listener) {
+        this.listener = listener;
+    }
+
+    static boolean looksLikeWebm(ByteBuffer data) {
+        return data.remaining() >= 4 && data.getInt(data.position()) == EBML;
+    }
+
+    String codecId() {
+        return codecId;
+    }
+
+    int samplingFrequency() {
+        return samplingFrequency;
+    }
+
+    int channels() {
+        return channels;
+    }
+
+    /** Nanoseconds per timecode tick, from the segment's Info element. */
+    long timecodeScale() {
+        return timecodeScale;
+    }
+
+    /**
+     * Appends data and parses as many complete elements as possible. The
+     * buffer's position is left untouched.
+     */
+    void feed(ByteBuffer data) {
+        int n = data.remaining();
+        ensureCapacity(n);
+        data.duplicate().get(buf, end, n);
+        end += n;
+        parse();
+        compact();
+    }
+
+    private void parse() {
+        while (true) {
+            if (skip > 0) {
+                int n = (int) Math.min(skip, end - start);
+                consume(n);
+                skip -= n;
+                if (skip > 0) {
+                    return;
+                }
+            }
+            int avail = end - start;
+            if (avail < 1) {
+                return;
+            }
+            int idLen = vintLength(buf[start]);
+            if (idLen == 0 || idLen > 4) {
+                throw new IllegalStateException("Malformed WebM element id at byte " + start);
+            }
+            if (avail < idLen + 1) {
+                return;
+            }
+            int sizeLen = vintLength(buf[start + idLen]);
+            if (sizeLen == 0) {
+                throw new IllegalStateException("Malformed WebM element size");
+            }
+            int headerLen = idLen + sizeLen;
+            if (avail < headerLen) {
+                return;
+            }
+            int id = (int) readUnsigned(buf, start, idLen);
+            long size = readSize(buf, start + idLen, sizeLen);
+
+            if (id == CLUSTER && !headerComplete) {
+                headerComplete = true;
+                listener.onHeader(initSegment.toByteArray());
+                initSegment.reset();
+            }
+
+            if (MASTERS.contains(id)) {
+                consume(headerLen);
+                continue;
+            }
+            if (size < 0) {
+                throw new IllegalStateException("Unknown-sized WebM element 0x" + Integer.toHexString(id));
+            }
+            if (LEAVES.contains(id)) {
+                if (size > MAX_ELEMENT_SIZE) {
+                    throw new IllegalStateException("WebM element too large: " + size + " bytes");
+                }
+                if (avail < headerLen + size) {
+                    return;
+                }
+                onLeaf(id, start + headerLen, (int) size);
+                consume(headerLen + (int) size);
+            } else {
+                consume(headerLen);
+                skip = size;
+            }
+        }
+    }
+
+    private void onLeaf(int id, int offset, int size) {
+        switch (id) {
+            case TIMECODE_SCALE -> timecodeScale = readUnsigned(buf, offset, size);
+            case CODEC_ID -> {
+                if (codecId == null) {
+                    codecId = new String(buf, offset, size, StandardCharsets.US_ASCII).trim();
+                }
+            }
+            case SAMPLING_FREQUENCY -> {
+                if (samplingFrequency == 0) {
+                    ByteBuffer b = ByteBuffer.wrap(buf, offset, size);
+                    samplingFrequency = (int) Math.round(size == 4 ? b.getFloat() : b.getDouble());
+                }
+            }
+            case CHANNELS -> channels = (int) readUnsigned(buf, offset, size);
+            case TIMECODE -> listener.onClusterStart(readUnsigned(buf, offset, size));
+            case SIMPLE_BLOCK, BLOCK -> listener.onBlock(buf, offset, size);
+            default -> {
+            }
+        }
+    }
+
+    private void consume(int n) {
+        if (!headerComplete) {
+            initSegment.write(buf, start, n);
+        }
+        start += n;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (end + extra <= buf.length) {
+            return;
+        }
+        compact();
+        if (end + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, end + extra));
+        }
+    }
+
+    private void compact() {
+        if (start == 0) {
+            return;
+        }
+        int remaining = end - start;
+        System.arraycopy(buf, start, buf, 0, remaining);
+        start = 0;
+        end = remaining;
+    }
+
+    /** Length of an EBML variable-size integer, from the position of its leading 1 bit. */
+    static int vintLength(byte first) {
+        int b = first & 0xFF;
+        return b == 0 ? 0 : Integer.numberOfLeadingZeros(b) - 23;
+    }
+
+    static long readUnsigned(byte[] data, int offset, int length) {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            value = (value << 8) | (data[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    /** Reads an element size, returning -1 for the reserved "unknown size" value. */
+    private static long readSize(byte[] data, int offset, int length) {
+        long value = data[offset] & (0xFF >> length);
+        boolean allOnes = value == (0xFF >> length);
+        for (int i = 1; i < length; i++) {
+            int b = data[offset + i] & 0xFF;
+            allOnes &= b == 0xFF;
+            value = (value << 8) | b;
+        }
+        return allOnes ? -1 : value;
+    }
+
+    /** Writes an element id followed by an 8-byte size field. */
+    static void writeElementHeader(ByteArrayOutputStream out, int id, long size) {
+        int idLen = id > 0xFFFFFF ? 4 : id > 0xFFFF ? 3 : id > 0xFF ? 2 : 1;
+        for (int i = idLen - 1; i >= 0; i--) {
+            out.write(id >>> (8 * i));
+        }
+        if (size < 0) {
+            out.write(0x01);
+            for (int i = 0; i < 7; i++) {
+                out.write(0xFF);
+            }
+            return;
+        }
+        out.write(0x01);
+        for (int i = 6; i >= 0; i--) {
+            out.write((int) (size >>> (8 * i)));
+        }
+    }
+}
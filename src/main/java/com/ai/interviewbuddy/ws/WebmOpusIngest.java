@@ -0,0 +1,162 @@
+package com.ai.interviewbuddy.ws;
+
+import com.ai.interviewbuddy.asr.AudioEncoding;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Ingest for {@code audio/webm;codecs=opus} from MediaRecorder.
+ *
+ * The Opus packets are not decoded; they are remuxed block by block and sent
+ * to Google as {@code WEBM_OPUS}, which is already far smaller than PCM at any
+ * sample rate. Every emitted chunk opens its own Cluster, so chunks can be
+ * queued, coalesced or dropped independently, and a new recognize stream can
+ * be started at any chunk by sending {@link #streamPreamble()} (the container
+ * header) first.
+ */
+final class WebmOpusIngest implements AudioIngest, WebmDemuxer.Listener {
+    private static final int[] OPUS_RATES = { 8000, 12000, 16000, 24000, 48000 };
+    /** Opus frame durations in microseconds, indexed by TOC config. */
+    private static final int[] OPUS_FRAME_MICROS = {
+            10000, 20000, 40000, 60000, 10000, 20000, 40000, 60000,
+            10000, 20000, 40000, 60000, 10000, 20000, 10000, 20000,
+            2500, 5000, 10000, 20000, 2500, 5000, 10000, 20000,
+            2500, 5000, 10000, 20000, 2500, 5000, 10000, 20000 };
+
+    private final WebmDemuxer demuxer = new WebmDemuxer(this);
+    private final ChunkBuffer out = new ChunkBuffer(1024);
+
+    private volatile byte[] initSegment;
+    private boolean chunkHasCluster;
+    private long clusterTimecode;
+    private long pendingMicros;
+    private int sampleRate;
+
+    @Override
+    public boolean isReady() {
+        return initSegment != null;
+    }
+
+    @Override
+    public AudioEncoding encoding() {
+        return AudioEncoding.WEBM_OPUS;
+    }
+
+    @Override
+    public int sampleRateHertz() {
+        return sampleRate;
+    }
+
+    @Override
+    public void accept(ByteBuffer payload, Sink sink) {
+        demuxer.feed(payload);
+        if (out.size() > 0 && isReady()) {
+            long millis = pendingMicros / 1000;
+            pendingMicros -= millis * 1000;
+            chunkHasCluster = false;
+            sink.accept(out.detach(), millis);
+        }
+    }
+
+    @Override
+    public ByteString streamPreamble() {
+        byte[] header = initSegment;
+        return header == null ? ByteString.EMPTY : UnsafeByteOperations.unsafeWrap(header);
+    }
+
+    @Override
+    public String describe() {
+        if (!isReady()) {
+            return "WebM (header pending, passthrough)";
+        }
+        return "WebM/" + demuxer.codecId() + " " + sampleRate + " Hz x" + demuxer.channels() + " (passthrough)";
+    }
+
+    @Override
+    public void onHeader(byte[] initSegment) {
+        if (!"A_OPUS".equals(demuxer.codecId())) {
+            throw new IllegalStateException("Unsupported WebM audio codec: " + demuxer.codecId());
+        }
+        this.sampleRate = nearestOpusRate(demuxer.samplingFrequency());
+        // Published last: the sender thread reads it when it opens a stream.
+        this.initSegment = initSegment;
+    }
+
+    @Override
+    public void onClusterStart(long timecode) {
+        clusterTimecode = timecode;
+        chunkHasCluster = false;
+    }
+
+    @Override
+    public void onBlock(byte[] data, int offset, int length) {
+        if (!chunkHasCluster) {
+            writeClusterHeader(out, clusterTimecode);
+            chunkHasCluster = true;
+        }
+        WebmDemuxer.writeElementHeader(out, WebmDemuxer.SIMPLE_BLOCK, length);
+        int trackLen = WebmDemuxer.vintLength(data[offset]);
+        int flagsAt = offset + trackLen + 2;
+        // Re-emitted as a SimpleBlock; audio blocks are always keyframes.
+        out.write(data, offset, trackLen + 2);
+        out.write((data[flagsAt] & 0x0F) | 0x80);
+        out.write(data, flagsAt + 1, length - trackLen - 3);
+        pendingMicros += opusPacketMicros(data, flagsAt + 1, offset + length, data[flagsAt]);
+    }
+
+    private static void writeClusterHeader(ByteArrayOutputStream target, long timecode) {
+        WebmDemuxer.writeElementHeader(target, WebmDemuxer.CLUSTER, -1);
+        WebmDemuxer.writeElementHeader(target, WebmDemuxer.TIMECODE, 8);
+        for (int i = 7; i >= 0; i--) {
+            target.write((int) (timecode >>> (8 * i)));
+        }
+    }
+
+    /** Duration of an unlaced Opus packet from its TOC byte (RFC 6716, section 3.1). */
+    static long opusPacketMicros(byte[] data, int from, int to, byte flags) {
+        if (from >= to) {
+            return 0;
+        }
+        if ((flags & 0x06) != 0) {
+            // Laced blocks carry several packets; MediaRecorder never produces them.
+            return 20000;
+        }
+        int toc = data[from] & 0xFF;
+        int frameMicros = OPUS_FRAME_MICROS[toc >> 3];
+        int frames = switch (toc & 0x03) {
+            case 0 -> 1;
+            case 1, 2 -> 2;
+            default -> from + 1 < to ? data[from + 1] & 0x3F : 1;
+        };
+        return (long) frameMicros * frames;
+    }
+
+    private static int nearestOpusRate(int rate) {
+        for (int candidate : OPUS_RATES) {
+            if (candidate >= rate) {
+                return candidate;
+            }
+        }
+        return 48000;
+    }
+
+    /**
+     * Output buffer whose contents are handed over as a {@link ByteString}
+     * without the extra copy {@code toByteArray()} would make.
+     */
+    private static final class ChunkBuffer extends ByteArrayOutputStream {
+        ChunkBuffer(int size) {
+            super(size);
+        }
+
+        ByteString detach() {
+            ByteString chunk = UnsafeByteOperations.unsafeWrap(buf, 0, count);
+            buf = new byte[buf.length];
+            count = 0;
+            return chunk;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ai.interviewbuddy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuestionDetectorTest {
+
+    @Test
+    void recognizesQuestionsAndPrompts() {
+        Map<String, Boolean> cases = Map.ofEntries(
+                // Interrogative openers, with or without punctuation from the recognizer.
+                Map.entry("What is your greatest weakness", true),
+                Map.entry("why did you leave your last job", true),
+                Map.entry("Have you worked with Kafka before", true),
+                Map.entry("I think we covered everything?", true),
+                // A filler in front of the opener.
+                Map.entry("So, what would you change about it", true),
+                Map.entry("okay how do you handle conflict", true),
+                Map.entry("Well, tell me about your last project", true),
+                // Interview prompts that are not phrased as questions.
+                Map.entry("Walk me through your resume", true),
+                Map.entry("tell me about a time you failed", true),
+                Map.entry("Give me an example of a tradeoff you made", true),
+                Map.entry("Design a URL shortener for us", true),
+                // Statements.
+                Map.entry("I worked on the payments team for three years", false),
+                Map.entry("That sounds great, thank you", false),
+                Map.entry("So I was leading the migration", false));
+
+        cases.forEach((utterance, expected) ->
+                assertThat(QuestionDetector.looksLikeQuestion(utterance)).as(utterance).isEqualTo(expected));
+    }
+
+    @Test
+    void ignoresUtterancesUnderFourWords() {
+        Map<String, Boolean> cases = Map.of(
+                "Why?", false,
+                "What is that?", false,
+                "tell me more", false,
+                "So, why not?", false,
+                "Why is that so?", true);
+
+        cases.forEach((utterance, expected) ->
+                assertThat(QuestionDetector.looksLikeQuestion(utterance)).as(utterance).isEqualTo(expected));
+    }
+
+    @Test
+    void ignoresPunctuationAndBlankInput() {
+        for (String utterance : new String[] {"", "   ", "?", "...", "? ? ? ?", "- - - - ?"}) {
+            assertThat(QuestionDetector.looksLikeQuestion(utterance)).as("\"%s\"", utterance).isFalse();
+        }
+    }
+}
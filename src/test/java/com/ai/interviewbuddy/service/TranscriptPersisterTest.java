@@ -0,0 +1,189 @@
+package com.ai.interviewbuddy.service;
+
+import com.ai.interviewbuddy.data.InterviewSession;
+import com.ai.interviewbuddy.data.InterviewSessionRepository;
+import com.ai.interviewbuddy.data.TranscriptUtterance;
+import com.ai.interviewbuddy.data.TranscriptUtteranceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TranscriptPersisterTest {
+
+    private static final String CHANNEL = "channel-1";
+
+    private final Database database = new Database();
+    private TranscriptStore store;
+    private TranscriptPersister persister;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        if (persister != null) {
+            persister.shutdown();
+        }
+    }
+
+    @Test
+    void restoresWhatWasStoredAfterTheChannelIsEvicted() throws Exception {
+        start();
+        store.append(CHANNEL, "tell me about yourself");
+        store.append(CHANNEL, "I build payment systems");
+        awaitStored("tell me about yourself", "I build payment systems");
+
+        evict();
+        assertThat(persister.restore(CHANNEL).get(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(texts(store.window(CHANNEL, Integer.MAX_VALUE, Integer.MAX_VALUE)))
+                .containsExactly("tell me about yourself", "I build payment systems");
+    }
+
+    @Test
+    void aClearedTranscriptIsNotRestored() throws Exception {
+        start();
+        store.append(CHANNEL, "tell me about yourself");
+        awaitStored("tell me about yourself");
+        // Queued right behind the clear, so the writer sees both in one batch.
+        store.append(CHANNEL, "I build payment systems");
+        store.clear(CHANNEL);
+        store.append(CHANNEL, "what are you proud of");
+        awaitStored("what are you proud of");
+
+        evict();
+        assertThat(persister.restore(CHANNEL).get(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(texts(store.window(CHANNEL, Integer.MAX_VALUE, Integer.MAX_VALUE)))
+                .containsExactly("what are you proud of");
+    }
+
+    @Test
+    void restoreLeavesAKnownChannelAlone() throws Exception {
+        start();
+        store.append(CHANNEL, "tell me about yourself");
+        awaitStored("tell me about yourself");
+        store.clear(CHANNEL);
+
+        assertThat(persister.restore(CHANNEL).get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(store.window(CHANNEL, Integer.MAX_VALUE, Integer.MAX_VALUE)).isEmpty();
+    }
+
+    private void start() {
+        store = new TranscriptStore(event -> {
+            if (event instanceof TranscriptFinalizedEvent finalized) {
+                persister.onFinal(finalized);
+            } else if (event instanceof TranscriptClearedEvent cleared) {
+                persister.onCleared(cleared);
+            }
+        }, 500, 120);
+        persister = new TranscriptPersister(database.sessions(), database.utterances(), store,
+                new NoTransactions(), true, 100, 100, 50, 1000);
+        persister.start();
+    }
+
+    private void evict() {
+        store.evictIdle(System.currentTimeMillis() + Duration.ofDays(1).toMillis());
+        assertThat(store.contains(CHANNEL)).isFalse();
+    }
+
+    private void awaitStored(String... expected) throws InterruptedException {
+        await(() -> database.texts(CHANNEL).equals(List.of(expected)));
+        assertThat(database.texts(CHANNEL)).containsExactly(expected);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static List<String> texts(List<TranscriptStore.Utterance> utterances) {
+        return utterances.stream().map(TranscriptStore.Utterance::text).toList();
+    }
+
+    /** In-memory stand-ins for the two repositories, implementing only what the persister calls. */
+    private static final class Database {
+        private final Map<String, InterviewSession> sessions = new HashMap<>();
+        private final List<TranscriptUtterance> rows = new ArrayList<>();
+
+        synchronized List<String> texts(String channel) {
+            return rows.stream()
+                    .filter(row -> row.getSession().getChannel().equals(channel))
+                    .map(TranscriptUtterance::getText)
+                    .toList();
+        }
+
+        InterviewSessionRepository sessions() {
+            return repository(InterviewSessionRepository.class, (method, args) -> switch (method) {
+                case "existsById" -> sessions.containsKey(args[0]);
+                case "getReferenceById" -> sessions.get(args[0]);
+                case "save" -> {
+                    InterviewSession session = (InterviewSession) args[0];
+                    sessions.put(session.getChannel(), session);
+                    yield session;
+                }
+                default -> throw new UnsupportedOperationException(method);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        TranscriptUtteranceRepository utterances() {
+            return repository(TranscriptUtteranceRepository.class, (method, args) -> switch (method) {
+                case "saveAll" -> {
+                    ((Iterable<TranscriptUtterance>) args[0]).forEach(rows::add);
+                    yield args[0];
+                }
+                case "findBySessionChannelOrderBySpokenAt" -> rows.stream()
+                        .filter(row -> row.getSession().getChannel().equals(args[0]))
+                        .toList();
+                case "deleteBySessionChannel" -> {
+                    int before = rows.size();
+                    rows.removeIf(row -> row.getSession().getChannel().equals(args[0]));
+                    yield before - rows.size();
+                }
+                default -> throw new UnsupportedOperationException(method);
+            });
+        }
+
+        private interface Call {
+            Object invoke(String method, Object[] args);
+        }
+
+        private <T> T repository(Class<T> type, Call call) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                    (proxy, method, args) -> {
+                        synchronized (this) {
+                            return call.invoke(method.getName(), args);
+                        }
+                    }));
+        }
+    }
+
+    private static final class NoTransactions implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.ai.interviewbuddy.ws;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsrAdmissionTest {
+
+    private AsrAdmission admission;
+
+    @AfterEach
+    void stop() {
+        admission.shutdown();
+    }
+
+    @Test
+    void aReleasedSlotGoesToTheOldestWaiter() throws InterruptedException {
+        admission = new AsrAdmission(1, 5, 10_000);
+        AsrAdmission.Permit held = admission.tryAcquire();
+        Waiter first = new Waiter();
+        Waiter second = new Waiter();
+        assertThat(admission.acquire(first)).isNotNull();
+        assertThat(admission.acquire(second)).isNotNull();
+
+        held.close();
+
+        AsrAdmission.Permit granted = first.await();
+        assertThat(granted).isNotNull();
+        assertThat(second.hasAnswer()).isFalse();
+
+        granted.close();
+        assertThat(second.await()).isNotNull();
+        assertThat(admission.used()).isEqualTo(1);
+    }
+
+    @Test
+    void aCancelledTicketDoesNotTakeASlot() throws InterruptedException {
+        admission = new AsrAdmission(1, 5, 10_000);
+        AsrAdmission.Permit held = admission.tryAcquire();
+        Waiter cancelled = new Waiter();
+        Waiter waiting = new Waiter();
+        admission.acquire(cancelled).cancel();
+        admission.acquire(waiting);
+
+        held.close();
+
+        AsrAdmission.Permit granted = waiting.await();
+        assertThat(granted).isNotNull();
+        granted.close();
+        // The slot is free again rather than handed to the withdrawn request.
+        AsrAdmission.Permit next = admission.tryAcquire();
+        assertThat(next).isNotNull();
+        assertThat(cancelled.hasAnswer()).isFalse();
+        next.close();
+        assertThat(admission.used()).isZero();
+    }
+
+    @Test
+    void closingAPermitTwiceFreesOneSlot() {
+        admission = new AsrAdmission(1, 5, 10_000);
+        AsrAdmission.Permit permit = admission.tryAcquire();
+
+        permit.close();
+        permit.close();
+
+        assertThat(admission.tryAcquire()).isNotNull();
+        assertThat(admission.tryAcquire()).isNull();
+        assertThat(admission.used()).isEqualTo(1);
+    }
+
+    @Test
+    void aFreeSlotIsGrantedOnTheCallingThread() {
+        admission = new AsrAdmission(1, 5, 10_000);
+        Thread caller = Thread.currentThread();
+        Thread[] answeredOn = new Thread[1];
+
+        assertThat(admission.acquire(permit -> answeredOn[0] = Thread.currentThread())).isNull();
+
+        assertThat(answeredOn[0]).isSameAs(caller);
+        assertThat(admission.used()).isEqualTo(1);
+    }
+
+    @Test
+    void aWaiterIsTurnedAwayAfterTheQueueTimeout() throws InterruptedException {
+        admission = new AsrAdmission(1, 5, 50);
+        AsrAdmission.Permit held = admission.tryAcquire();
+        Waiter waiter = new Waiter();
+        admission.acquire(waiter);
+
+        assertThat(waiter.await()).isNull();
+
+        // The slot released later is free, not owed to the expired request.
+        held.close();
+        assertThat(admission.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    void aFullQueueIsRejectedAtOnce() {
+        admission = new AsrAdmission(1, 1, 10_000);
+        admission.tryAcquire();
+        admission.acquire(new Waiter());
+        Waiter rejected = new Waiter();
+
+        assertThat(admission.acquire(rejected)).isNull();
+
+        assertThat(rejected.hasAnswer()).isTrue();
+    }
+
+    /** Records the answer to one request; the admission thread may deliver it. */
+    private static final class Waiter implements Consumer<AsrAdmission.Permit> {
+        private final BlockingQueue<Optional<AsrAdmission.Permit>> answers = new LinkedBlockingQueue<>();
+
+        @Override
+        public void accept(AsrAdmission.Permit permit) {
+            answers.add(Optional.ofNullable(permit));
+        }
+
+        AsrAdmission.Permit await() throws InterruptedException {
+            Optional<AsrAdmission.Permit> answer = answers.poll(5, TimeUnit.SECONDS);
+            assertThat(answer).as("answered").isNotNull();
+            assertThat(answers).as("answered once").isEmpty();
+            return answer.orElse(null);
+        }
+
+        boolean hasAnswer() {
+            return !answers.isEmpty();
+        }
+    }
+}
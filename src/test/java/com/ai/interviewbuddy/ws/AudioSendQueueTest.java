@@ -0,0 +1,149 @@
+package com.ai.interviewbuddy.ws;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AudioSendQueueTest {
+
+    @Test
+    void dropOldestKeepsTheHeadAndDropsTheChunkAfterIt() throws InterruptedException {
+        AudioSendQueue queue = new AudioSendQueue(3, AudioSendQueue.OverflowPolicy.DROP_OLDEST, 0);
+        offer(queue, "a", 10);
+        offer(queue, "b", 20);
+        offer(queue, "c", 30);
+        ByteString head = queue.awaitHead();
+
+        assertThat(queue.offer(chunk("d"), 40)).isTrue();
+
+        // The head may be in flight in the sender, so it survives and its bytes are untouched.
+        assertThat(head.toStringUtf8()).isEqualTo("a");
+        assertThat(drain(queue)).containsExactly("a", "c", "d");
+        AudioSendQueue.Stats stats = queue.stats();
+        assertThat(stats.droppedChunks()).isEqualTo(1);
+        assertThat(stats.droppedMillis()).isEqualTo(20);
+        assertThat(stats.offeredChunks()).isEqualTo(4);
+        assertThat(stats.maxDepth()).isEqualTo(3);
+    }
+
+    @Test
+    void dropOldestKeepsTheNewestChunksUnderSustainedOverflow() throws InterruptedException {
+        AudioSendQueue queue = new AudioSendQueue(4, AudioSendQueue.OverflowPolicy.DROP_OLDEST, 0);
+        for (int i = 0; i < 10; i++) {
+            offer(queue, "c" + i, 10);
+        }
+
+        assertThat(drain(queue)).containsExactly("c0", "c7", "c8", "c9");
+        assertThat(queue.stats().droppedChunks()).isEqualTo(6);
+        assertThat(queue.stats().droppedMillis()).isEqualTo(60);
+    }
+
+    @Test
+    void coalesceAppendsToTheNewestChunkWhenFull() throws InterruptedException {
+        AudioSendQueue queue = new AudioSendQueue(2, AudioSendQueue.OverflowPolicy.COALESCE, 0);
+        offer(queue, "a", 10);
+        offer(queue, "b", 20);
+        offer(queue, "c", 30);
+        offer(queue, "d", 40);
+
+        assertThat(queue.awaitHead().toStringUtf8()).isEqualTo("a");
+        queue.release();
+        assertThat(queue.awaitHead().toStringUtf8()).isEqualTo("bcd");
+        assertThat(queue.headMillis()).isEqualTo(90);
+        AudioSendQueue.Stats stats = queue.stats();
+        assertThat(stats.coalescedChunks()).isEqualTo(2);
+        assertThat(stats.droppedChunks()).isZero();
+    }
+
+    @Test
+    void coalesceDropsTheOldestOnceTheTailReachesTheSizeCap() throws InterruptedException {
+        AudioSendQueue queue = new AudioSendQueue(3, AudioSendQueue.OverflowPolicy.COALESCE, 0);
+        byte[] large = new byte[AudioSendQueue.MAX_COALESCED_BYTES - 10];
+        queue.offer(ByteString.copyFromUtf8("a"), 10);
+        queue.offer(ByteString.copyFromUtf8("b"), 20);
+        queue.offer(ByteString.copyFrom(large), 30);
+
+        // Appending would exceed the cap of a streaming request, so "b" gives way instead.
+        assertThat(queue.offer(ByteString.copyFrom(new byte[20]), 40)).isTrue();
+
+        List<Integer> sizes = new ArrayList<>();
+        for (ByteString head = queue.awaitHead(); head != null; head = next(queue)) {
+            sizes.add(head.size());
+        }
+        assertThat(sizes).containsExactly(1, large.length, 20);
+        assertThat(queue.stats().droppedChunks()).isEqualTo(1);
+        assertThat(queue.stats().droppedMillis()).isEqualTo(20);
+    }
+
+    @Test
+    void blockDropsTheNewChunkAfterTheTimeout() throws InterruptedException {
+        AudioSendQueue queue = new AudioSendQueue(2, AudioSendQueue.OverflowPolicy.BLOCK, 20);
+        offer(queue, "a", 10);
+        offer(queue, "b", 10);
+
+        assertThat(queue.offer(chunk("c"), 10)).isFalse();
+        assertThat(drain(queue)).containsExactly("a", "b");
+    }
+
+    @Test
+    void offeredAudioIsCopied() throws InterruptedException {
+        AudioSendQueue queue = new AudioSendQueue(2, AudioSendQueue.OverflowPolicy.DROP_OLDEST, 0);
+        byte[] frame = {1, 2, 3};
+        queue.offer(UnsafeByteOperations.unsafeWrap(frame), 10);
+        frame[0] = 9;
+
+        assertThat(queue.awaitHead().toByteArray()).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void closeWakesTheConsumerAndRefusesAudio() throws InterruptedException {
+        AudioSendQueue queue = new AudioSendQueue(2, AudioSendQueue.OverflowPolicy.DROP_OLDEST, 0);
+        queue.close();
+
+        assertThat(queue.awaitHead()).isNull();
+        assertThat(queue.offer(chunk("a"), 10)).isFalse();
+    }
+
+    @Test
+    void closeLetsTheConsumerDrainWhatIsQueued() throws InterruptedException {
+        AudioSendQueue queue = new AudioSendQueue(4, AudioSendQueue.OverflowPolicy.DROP_OLDEST, 0);
+        offer(queue, "a", 10);
+        offer(queue, "b", 10);
+        queue.close();
+
+        assertThat(queue.offer(chunk("c"), 10)).isFalse();
+        assertThat(queue.awaitHead().toStringUtf8()).isEqualTo("a");
+        queue.release();
+        assertThat(queue.awaitHead().toStringUtf8()).isEqualTo("b");
+        queue.release();
+        assertThat(queue.awaitHead()).isNull();
+    }
+
+    private static void offer(AudioSendQueue queue, String text, long millis) throws InterruptedException {
+        assertThat(queue.offer(chunk(text), millis)).isTrue();
+    }
+
+    private static ByteString chunk(String text) {
+        return ByteString.copyFromUtf8(text);
+    }
+
+    /** Releases the current head and returns the next one, or null when the queue is empty. */
+    private static ByteString next(AudioSendQueue queue) throws InterruptedException {
+        queue.release();
+        return queue.stats().depth() == 0 ? null : queue.awaitHead();
+    }
+
+    private static List<String> drain(AudioSendQueue queue) throws InterruptedException {
+        List<String> chunks = new ArrayList<>();
+        while (queue.stats().depth() > 0) {
+            chunks.add(queue.awaitHead().toStringUtf8());
+            queue.release();
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,107 @@
+package com.ai.interviewbuddy.ws;
+
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FramedPcm16IngestTest {
+
+    private static final int RATE = 16000;
+
+    private final List<Integer> received = new ArrayList<>();
+
+    @Test
+    void passesFramesInOrderThrough() {
+        FramedPcm16Ingest ingest = new FramedPcm16Ingest(RATE, RATE);
+        feed(ingest, 0, 1, 2);
+
+        assertThat(received).containsExactly(0, 1, 2);
+        assertThat(ingest.expectedSequence()).isEqualTo(3);
+        assertThat(ingest.lostFrames()).isZero();
+    }
+
+    @Test
+    void dropsFramesReplayedAfterAReconnect() {
+        FramedPcm16Ingest ingest = new FramedPcm16Ingest(RATE, RATE);
+        feed(ingest, 0, 1, 2, 1, 2, 3);
+
+        assertThat(received).containsExactly(0, 1, 2, 3);
+        assertThat(ingest.lostFrames()).isZero();
+    }
+
+    @Test
+    void dropsALateFrameAfterCountingItAsLost() {
+        FramedPcm16Ingest ingest = new FramedPcm16Ingest(RATE, RATE);
+        feed(ingest, 0, 2, 1, 3);
+
+        // Frame 1 was already given up when 2 arrived; playing it now would reorder the audio.
+        assertThat(received).containsExactly(0, 2, 3);
+        assertThat(ingest.lostFrames()).isEqualTo(1);
+    }
+
+    @Test
+    void countsAGapAsLostFrames() {
+        FramedPcm16Ingest ingest = new FramedPcm16Ingest(RATE, RATE);
+        feed(ingest, 0, 1, 5, 6);
+
+        assertThat(received).containsExactly(0, 1, 5, 6);
+        assertThat(ingest.lostFrames()).isEqualTo(3);
+    }
+
+    @Test
+    void acceptsTheSequenceWrappingToZero() {
+        FramedPcm16Ingest ingest = new FramedPcm16Ingest(RATE, RATE);
+        feed(ingest, 0xFFFFFFFE, 0xFFFFFFFF, 0, 0xFFFFFFFF, 1);
+
+        assertThat(received).containsExactly(0xFFFFFFFE, 0xFFFFFFFF, 0, 1);
+        assertThat(ingest.expectedSequence()).isEqualTo(2);
+        assertThat(ingest.lostFrames()).isZero();
+    }
+
+    @Test
+    void countsAGapAcrossTheWrap() {
+        FramedPcm16Ingest ingest = new FramedPcm16Ingest(RATE, RATE);
+        feed(ingest, 0xFFFFFFFE, 1);
+
+        assertThat(received).containsExactly(0xFFFFFFFE, 1);
+        assertThat(ingest.lostFrames()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsAFrameWithoutAHeader() {
+        FramedPcm16Ingest ingest = new FramedPcm16Ingest(RATE, RATE);
+
+        assertThatThrownBy(() -> ingest.accept(ByteBuffer.allocate(5), this::collect))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private void feed(FramedPcm16Ingest ingest, int... sequences) {
+        for (int sequence : sequences) {
+            ingest.accept(frame(sequence), this::collect);
+        }
+    }
+
+    /** Records the sequence number carried in the first sample of each frame that gets through. */
+    private void collect(ByteString audio, long durationMillis) {
+        assertThat(durationMillis).isEqualTo(20);
+        ByteBuffer samples = audio.asReadOnlyByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        received.add((samples.getShort() & 0xFFFF) << 16 | (samples.getShort() & 0xFFFF));
+    }
+
+    /** A 20 ms frame whose first two samples spell out its sequence number. */
+    private static ByteBuffer frame(int sequence) {
+        ByteBuffer frame = ByteBuffer.allocate(FramedPcm16Ingest.HEADER_BYTES + RATE / 50 * 2);
+        frame.putInt(sequence).putInt(0);
+        frame.order(ByteOrder.LITTLE_ENDIAN)
+                .putShort((short) (sequence >>> 16))
+                .putShort((short) sequence);
+        return frame.clear();
+    }
+}
@@ -0,0 +1,94 @@
+package com.ai.interviewbuddy.ws;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PolyphaseResamplerTest {
+
+    /** Block lengths that do not line up with the 441-sample period of 44.1 to 16 kHz. */
+    private static final int[] UNEVEN_BLOCKS = {1, 7, 440, 1024, 13, 441, 2, 882, 97};
+
+    @Test
+    void blocksProduceTheSameSamplesAsOneCall() {
+        float[] input = tone(44100, 44100, 440);
+        float[] whole = resample(new PolyphaseResampler(44100, 16000), input, new int[] {input.length});
+
+        float[] blockwise = resample(new PolyphaseResampler(44100, 16000), input, UNEVEN_BLOCKS);
+
+        assertThat(blockwise).containsExactly(whole, within(1e-6f));
+    }
+
+    @Test
+    void outputLengthFollowsTheRateRatioAcrossCalls() {
+        PolyphaseResampler resampler = new PolyphaseResampler(44100, 16000);
+        float[] output = new float[resampler.maxOutput(2048)];
+        long consumed = 0;
+        long produced = 0;
+        for (int i = 0; i < 200; i++) {
+            int length = UNEVEN_BLOCKS[i % UNEVEN_BLOCKS.length];
+            int written = resampler.process(new float[length], length, output);
+            assertThat(written).isLessThanOrEqualTo(resampler.maxOutput(length));
+            consumed += length;
+            produced += written;
+            // Output j is taken at input position floor(j * 441 / 160), so exactly ceil(n * 160 / 441) exist.
+            assertThat(produced).isEqualTo((consumed * 160 + 440) / 441);
+        }
+    }
+
+    @Test
+    void eachPeriodOfInputGivesTheSameNumberOfSamples() {
+        PolyphaseResampler resampler = new PolyphaseResampler(48000, 16000);
+        float[] output = new float[resampler.maxOutput(960)];
+        for (int i = 0; i < 10; i++) {
+            assertThat(resampler.process(new float[960], 960, output)).isEqualTo(320);
+        }
+    }
+
+    @Test
+    void passesDcThroughAtUnityGain() {
+        float[] input = new float[44100];
+        Arrays.fill(input, 0.5f);
+
+        float[] output = resample(new PolyphaseResampler(44100, 16000), input, UNEVEN_BLOCKS);
+
+        // Skip the filter's warm-up from the zero history.
+        for (int i = 100; i < output.length; i++) {
+            assertThat(output[i]).isCloseTo(0.5f, within(0.005f));
+        }
+    }
+
+    @Test
+    void equalRatesArePassthrough() {
+        assertThat(new PolyphaseResampler(16000, 16000).isPassthrough()).isTrue();
+        assertThat(new PolyphaseResampler(44100, 16000).isPassthrough()).isFalse();
+    }
+
+    private static float[] resample(PolyphaseResampler resampler, float[] input, int[] blocks) {
+        float[] result = new float[resampler.maxOutput(input.length)];
+        float[] block = new float[input.length];
+        float[] output = new float[resampler.maxOutput(input.length)];
+        int offset = 0;
+        int produced = 0;
+        for (int i = 0; offset < input.length; i++) {
+            int length = Math.min(blocks[i % blocks.length], input.length - offset);
+            System.arraycopy(input, offset, block, 0, length);
+            int written = resampler.process(block, length, output);
+            System.arraycopy(output, 0, result, produced, written);
+            offset += length;
+            produced += written;
+        }
+        return Arrays.copyOf(result, produced);
+    }
+
+    private static float[] tone(int rate, int length, double hertz) {
+        float[] samples = new float[length];
+        for (int i = 0; i < length; i++) {
+            samples[i] = (float) (0.5 * Math.sin(2 * Math.PI * hertz * i / rate));
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,55 @@
+package com.ai.interviewbuddy.ws;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TranscriptDeduplicatorTest {
+
+    @Test
+    void dropsWordsTheNextStreamRepeatsAtTheSeam() {
+        TranscriptDeduplicator deduplicator = new TranscriptDeduplicator();
+        deduplicator.accept(0, "I worked on the payments team");
+        deduplicator.expectOverlap(1);
+
+        assertThat(deduplicator.accept(1, "the Payments team, mostly on billing")).isEqualTo("mostly on billing");
+    }
+
+    @Test
+    void onlyTheFirstFinalOfTheNewStreamIsTrimmed() {
+        TranscriptDeduplicator deduplicator = new TranscriptDeduplicator();
+        deduplicator.accept(0, "we shipped it");
+        deduplicator.expectOverlap(1);
+        deduplicator.accept(1, "shipped it on time");
+
+        assertThat(deduplicator.accept(1, "on time again")).isEqualTo("on time again");
+    }
+
+    @Test
+    void keepsRepeatsWithoutARollover() {
+        TranscriptDeduplicator deduplicator = new TranscriptDeduplicator();
+        deduplicator.accept(0, "yes");
+
+        assertThat(deduplicator.accept(0, "yes")).isEqualTo("yes");
+    }
+
+    @Test
+    void keepsEverythingWhenTheSeamDoesNotMatch() {
+        TranscriptDeduplicator deduplicator = new TranscriptDeduplicator();
+        deduplicator.accept(0, "tell me about yourself");
+        deduplicator.expectOverlap(1);
+
+        assertThat(deduplicator.accept(1, "about a project you led")).isEqualTo("about a project you led");
+    }
+
+    @Test
+    void resultsOfTheOldStreamAreNotTrimmed() {
+        TranscriptDeduplicator deduplicator = new TranscriptDeduplicator();
+        deduplicator.accept(0, "first answer");
+        deduplicator.expectOverlap(1);
+
+        // A late final of the stream being replaced still arrives on generation 0.
+        assertThat(deduplicator.accept(0, "answer continued")).isEqualTo("answer continued");
+        assertThat(deduplicator.accept(1, "answer continued and more")).isEqualTo("and more");
+    }
+}
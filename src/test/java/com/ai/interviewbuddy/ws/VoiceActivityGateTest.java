@@ -0,0 +1,170 @@
+package com.ai.interviewbuddy.ws;
+
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VoiceActivityGateTest {
+
+    private static final int RATE = 16000;
+    private static final int FRAME_BYTES = RATE / 50 * 2;
+
+    private final ByteArrayOutputStream forwarded = new ByteArrayOutputStream();
+    private final List<String> events = new ArrayList<>();
+
+    @Test
+    void flushesThePreRollAheadOfTheOnset() {
+        // 100 ms of pre-roll: five 20 ms frames.
+        VoiceActivityGate gate = gate(100, 200);
+
+        feed(gate, silence(10));
+        assertThat(forwarded.size()).isZero();
+
+        feed(gate, tone(2));
+
+        // The onset needs two speech frames; the ring holds the first of them and the four silent frames before it.
+        assertThat(events).containsExactly("start");
+        byte[] sent = forwarded.toByteArray();
+        assertThat(sent).hasSize(6 * FRAME_BYTES);
+        assertThat(frame(sent, 0)).isEqualTo(silence(1));
+        assertThat(frame(sent, 3)).isEqualTo(silence(1));
+        assertThat(frame(sent, 4)).isEqualTo(tone(1));
+        assertThat(frame(sent, 5)).isEqualTo(tone(1));
+        assertThat(gate.forwardedMillis()).isEqualTo(120);
+        assertThat(gate.suppressedMillis()).isEqualTo(11 * 20 - 5 * 20);
+    }
+
+    @Test
+    void keepsTheGateOpenForTheHangover() {
+        // 200 ms of hangover: ten 20 ms frames.
+        VoiceActivityGate gate = gate(100, 200);
+        feed(gate, silence(10));
+        feed(gate, tone(5));
+        int afterSpeech = forwarded.size();
+
+        feed(gate, silence(9));
+        assertThat(forwarded.size()).isEqualTo(afterSpeech + 9 * FRAME_BYTES);
+        assertThat(events).containsExactly("start");
+
+        feed(gate, silence(1));
+        // The reported length counts the frames after the onset, hangover included: 3 + 10.
+        assertThat(events).containsExactly("start", "end 260");
+
+        feed(gate, silence(5));
+        assertThat(forwarded.size()).isEqualTo(afterSpeech + 10 * FRAME_BYTES);
+    }
+
+    @Test
+    void aPauseShorterThanTheHangoverDoesNotEndTheUtterance() {
+        VoiceActivityGate gate = gate(100, 200);
+        feed(gate, silence(10));
+        feed(gate, tone(5));
+        feed(gate, silence(8));
+        feed(gate, tone(5));
+        feed(gate, silence(10));
+
+        assertThat(events).containsExactly("start", "end 520");
+    }
+
+    @Test
+    void framesSplitAcrossChunksAreReassembled() {
+        VoiceActivityGate whole = gate(100, 200);
+        byte[] audio = concat(silence(10), tone(5), silence(12));
+        whole.accept(ByteString.copyFrom(audio), audio.length / (FRAME_BYTES / 20));
+        byte[] expected = forwarded.toByteArray();
+        forwarded.reset();
+        events.clear();
+
+        VoiceActivityGate split = gate(100, 200);
+        for (int offset = 0; offset < audio.length; offset += 333) {
+            int length = Math.min(333, audio.length - offset);
+            split.accept(ByteString.copyFrom(audio, offset, length), 0);
+        }
+
+        assertThat(forwarded.toByteArray()).isEqualTo(expected);
+        assertThat(events).containsExactly("start", "end 260");
+    }
+
+    @Test
+    void reportsIdleOnceAfterSpeech() {
+        VoiceActivityGate gate = new VoiceActivityGate(RATE, new VadSettings(true, 10, -50, 100, 200, 400),
+                this::collect, listener());
+        feed(gate, silence(30));
+        assertThat(events).isEmpty();
+
+        feed(gate, tone(5));
+        feed(gate, silence(40));
+
+        // Ten frames of hangover, then twenty more of silence before the idle report.
+        assertThat(events).containsExactly("start", "end 260", "idle");
+    }
+
+    private VoiceActivityGate gate(long preRollMillis, long hangoverMillis) {
+        return new VoiceActivityGate(RATE, new VadSettings(true, 10, -50, preRollMillis, hangoverMillis, 60_000),
+                this::collect, listener());
+    }
+
+    private VoiceActivityGate.Listener listener() {
+        return new VoiceActivityGate.Listener() {
+            @Override
+            public void onSpeechStart() {
+                events.add("start");
+            }
+
+            @Override
+            public void onSpeechEnd(long speechMillis) {
+                events.add("end " + speechMillis);
+            }
+
+            @Override
+            public void onIdle() {
+                events.add("idle");
+            }
+        };
+    }
+
+    private void collect(ByteString audio, long durationMillis) {
+        assertThat(durationMillis).isEqualTo((long) audio.size() / FRAME_BYTES * 20);
+        forwarded.writeBytes(audio.toByteArray());
+    }
+
+    private static void feed(VoiceActivityGate gate, byte[] audio) {
+        gate.accept(ByteString.copyFrom(audio), (long) audio.length / FRAME_BYTES * 20);
+    }
+
+    private static byte[] silence(int frames) {
+        return new byte[frames * FRAME_BYTES];
+    }
+
+    /** A 440 Hz tone at -10 dBFS, restarting its phase every frame so frames compare equal. */
+    private static byte[] tone(int frames) {
+        ByteBuffer samples = ByteBuffer.allocate(frames * FRAME_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int f = 0; f < frames; f++) {
+            for (int i = 0; i < FRAME_BYTES / 2; i++) {
+                samples.putShort((short) (0.45 * Short.MAX_VALUE * Math.sin(2 * Math.PI * 440 * i / RATE)));
+            }
+        }
+        return samples.array();
+    }
+
+    private static byte[] frame(byte[] audio, int index) {
+        byte[] frame = new byte[FRAME_BYTES];
+        System.arraycopy(audio, index * FRAME_BYTES, frame, 0, FRAME_BYTES);
+        return frame;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
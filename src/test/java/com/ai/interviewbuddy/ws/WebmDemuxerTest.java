@@ -0,0 +1,150 @@
+package com.ai.interviewbuddy.ws;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebmDemuxerTest {
+
+    private static final int DOC_TYPE = 0x4282;
+
+    @Test
+    void parsesTrackAndBlocksFedInOnePiece() {
+        byte[] webm = recording();
+        Recorder recorder = new Recorder();
+        WebmDemuxer demuxer = new WebmDemuxer(recorder);
+
+        demuxer.feed(ByteBuffer.wrap(webm));
+
+        assertThat(demuxer.codecId()).isEqualTo("A_OPUS");
+        assertThat(demuxer.samplingFrequency()).isEqualTo(48000);
+        assertThat(demuxer.channels()).isEqualTo(1);
+        assertThat(demuxer.timecodeScale()).isEqualTo(1_000_000);
+        assertThat(recorder.header).isEqualTo(Arrays.copyOf(webm, clusterOffset(webm)));
+        assertThat(recorder.events).containsExactly("cluster 0", "block 81000080 010203", "block 81001480 0405",
+                "cluster 40", "block 81000080 06");
+    }
+
+    @Test
+    void completesElementsSplitAtEveryByte() {
+        byte[] webm = recording();
+        Recorder whole = new Recorder();
+        new WebmDemuxer(whole).feed(ByteBuffer.wrap(webm));
+
+        for (int split = 1; split < webm.length; split++) {
+            Recorder recorder = new Recorder();
+            WebmDemuxer demuxer = new WebmDemuxer(recorder);
+            demuxer.feed(ByteBuffer.wrap(webm, 0, split));
+            demuxer.feed(ByteBuffer.wrap(webm, split, webm.length - split));
+
+            assertThat(recorder.header).as("split at %d", split).isEqualTo(whole.header);
+            assertThat(recorder.events).as("split at %d", split).isEqualTo(whole.events);
+            assertThat(demuxer.codecId()).as("split at %d", split).isEqualTo("A_OPUS");
+        }
+    }
+
+    @Test
+    void completesElementsFedOneByteAtATime() {
+        byte[] webm = recording();
+        Recorder whole = new Recorder();
+        new WebmDemuxer(whole).feed(ByteBuffer.wrap(webm));
+
+        Recorder recorder = new Recorder();
+        WebmDemuxer demuxer = new WebmDemuxer(recorder);
+        for (int i = 0; i < webm.length; i++) {
+            demuxer.feed(ByteBuffer.wrap(webm, i, 1));
+        }
+
+        assertThat(recorder.header).isEqualTo(whole.header);
+        assertThat(recorder.events).isEqualTo(whole.events);
+    }
+
+    @Test
+    void leavesTheFedBufferPositionAlone() {
+        ByteBuffer data = ByteBuffer.wrap(recording());
+        new WebmDemuxer(new Recorder()).feed(data);
+
+        assertThat(data.position()).isZero();
+    }
+
+    /** EBML header, an unknown-sized Segment with Info and one Opus track, and two unknown-sized Clusters. */
+    private static byte[] recording() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        element(out, 0x1A45DFA3, element(DOC_TYPE, "webm".getBytes(StandardCharsets.US_ASCII)));
+        WebmDemuxer.writeElementHeader(out, 0x18538067, -1);
+        element(out, 0x1549A966, element(0x2AD7B1, new byte[] {0x0F, 0x42, 0x40}));
+        byte[] frequency = ByteBuffer.allocate(4).putFloat(48000f).array();
+        byte[] audio = concat(element(0xB5, frequency), element(0x9F, new byte[] {1}));
+        byte[] track = concat(element(0x86, "A_OPUS".getBytes(StandardCharsets.US_ASCII)), element(0xE1, audio));
+        element(out, 0x1654AE6B, element(0xAE, track));
+        WebmDemuxer.writeElementHeader(out, WebmDemuxer.CLUSTER, -1);
+        element(out, WebmDemuxer.TIMECODE, new byte[] {0});
+        element(out, WebmDemuxer.SIMPLE_BLOCK, new byte[] {(byte) 0x81, 0, 0, (byte) 0x80, 1, 2, 3});
+        element(out, WebmDemuxer.SIMPLE_BLOCK, new byte[] {(byte) 0x81, 0, 0x14, (byte) 0x80, 4, 5});
+        WebmDemuxer.writeElementHeader(out, WebmDemuxer.CLUSTER, -1);
+        element(out, WebmDemuxer.TIMECODE, new byte[] {40});
+        element(out, WebmDemuxer.SIMPLE_BLOCK, new byte[] {(byte) 0x81, 0, 0, (byte) 0x80, 6});
+        return out.toByteArray();
+    }
+
+    private static byte[] element(int id, byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        element(out, id, body);
+        return out.toByteArray();
+    }
+
+    private static void element(ByteArrayOutputStream out, int id, byte[] body) {
+        WebmDemuxer.writeElementHeader(out, id, body.length);
+        out.writeBytes(body);
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] joined = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, joined, a.length, b.length);
+        return joined;
+    }
+
+    private static int clusterOffset(byte[] webm) {
+        for (int i = 0; i + 4 <= webm.length; i++) {
+            if (ByteBuffer.wrap(webm, i, 4).getInt() == WebmDemuxer.CLUSTER) {
+                return i;
+            }
+        }
+        throw new AssertionError("no cluster");
+    }
+
+    private static final class Recorder implements WebmDemuxer.Listener {
+        private byte[] header;
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onHeader(byte[] initSegment) {
+            assertThat(header).as("header reported once").isNull();
+            header = initSegment;
+        }
+
+        @Override
+        public void onClusterStart(long timecode) {
+            events.add("cluster " + timecode);
+        }
+
+        @Override
+        public void onBlock(byte[] data, int offset, int length) {
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                if (i == 4) {
+                    hex.append(' ');
+                }
+                hex.append(String.format("%02x", data[offset + i]));
+            }
+            events.add("block " + hex);
+        }
+    }
+}